@@ -0,0 +1,50 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.Fen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board comparison, hashing and copying, as used by caches, tests and
+ * snapshots handed to other threads
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    private ChessBoard board;
+    private ChessBoard equalBoard;
+    private ChessBoard otherBoard;
+
+    @Setup
+    public void setUp() {
+        board = Fen.load(Positions.MIDDLEGAME).getBoard();
+        equalBoard = Fen.load(Positions.MIDDLEGAME).getBoard();
+        otherBoard = Fen.load(Positions.START).getBoard();
+    }
+
+    @Benchmark
+    public boolean equalsSame() {
+        return board.equals(equalBoard);
+    }
+
+    @Benchmark
+    public boolean equalsDifferent() {
+        return board.equals(otherBoard);
+    }
+
+    @Benchmark
+    public int hashCodeBoard() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public ChessBoard copy() {
+        return board.copy();
+    }
+}
@@ -0,0 +1,126 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Legal move generation, move application and game status checks through the
+ * public ChessGame API. The status checks also run on a position in check and
+ * a mated one, so check and checkmate detection aren't only measured on their
+ * early exits.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    // Knight moves that bring the starting position back to itself
+    private static final ChessMove[] KNIGHT_SHUFFLE = {
+            new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+            new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+            new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+            new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null),
+    };
+
+    private ChessGame shuffleGame;
+    private final MoveList moves = new MoveList();
+
+    /**
+     * A game to generate moves in
+     */
+    @State(Scope.Thread)
+    public static class Game {
+        @Param({"START", "MIDDLEGAME", "ENDGAME"})
+        public String position;
+
+        ChessGame game;
+
+        @Setup
+        public void setUp() {
+            game = Fen.load(Positions.byName(position));
+        }
+    }
+
+    /**
+     * A game to check the status of, including ones in check and checkmate
+     */
+    @State(Scope.Thread)
+    public static class StatusGame {
+        @Param({"START", "MIDDLEGAME", "ENDGAME", "CHECK", "MATED"})
+        public String position;
+
+        ChessGame game;
+
+        @Setup
+        public void setUp() {
+            game = Fen.load(Positions.byName(position));
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        shuffleGame = new ChessGame();
+    }
+
+    /**
+     * Generates every valid move for the side to move from scratch, without
+     * the per-position move cache, so it measures move generation itself
+     */
+    @Benchmark
+    public MoveList validMovesForSideToMove(Game state) {
+        ChessGame game = state.game;
+        moves.clear();
+        game.validMoves(game.getTeamTurn(), moves);
+        return moves;
+    }
+
+    /**
+     * Asks for each piece's moves through the public API. After the first
+     * call these come from the move cache, so this measures looking moves up
+     * rather than generating them.
+     */
+    @Benchmark
+    public void validMovesCached(Game state, Blackhole blackhole) {
+        ChessGame game = state.game;
+        for (long pieces = game.getBoard().teamPieces(game.getTeamTurn()); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            blackhole.consume(game.validMoves(ChessPosition.of(square / 8 + 1, square % 8 + 1)));
+        }
+    }
+
+    /**
+     * Four makeMove calls per invocation, each taken back again, so the undo
+     * stack stays the same size and only making and unmaking is measured
+     */
+    @Benchmark
+    @OperationsPerInvocation(4)
+    public ChessGame makeMove() throws InvalidMoveException {
+        for (ChessMove move : KNIGHT_SHUFFLE) {
+            shuffleGame.makeMove(move);
+        }
+        for (int i = 0; i < KNIGHT_SHUFFLE.length; i++) {
+            shuffleGame.unmakeMove();
+        }
+        return shuffleGame;
+    }
+
+    @Benchmark
+    public boolean isInCheck(StatusGame state) {
+        return state.game.isInCheck(state.game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(StatusGame state) {
+        return state.game.isInCheckmate(state.game.getTeamTurn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate(StatusGame state) {
+        return state.game.isInStalemate(state.game.getTeamTurn());
+    }
+}
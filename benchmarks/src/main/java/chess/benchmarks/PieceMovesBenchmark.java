@@ -0,0 +1,53 @@
+package chess.benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pseudo-legal move generation for one piece of each type
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType type;
+
+    private ChessBoard board;
+    private ChessPosition position;
+    private ChessPiece piece;
+    private final MoveList moves = new MoveList();
+
+    @Setup
+    public void setUp() {
+        board = Fen.load(Positions.MIDDLEGAME).getBoard();
+        // Use the first white piece of the requested type
+        for (int row = 1; row <= 8 && position == null; row++) {
+            for (int col = 1; col <= 8 && position == null; col++) {
+                ChessPiece candidate = board.getPiece(ChessPosition.of(row, col));
+                if (candidate != null && candidate.getTeamColor() == ChessGame.TeamColor.WHITE
+                        && candidate.getPieceType() == type) {
+                    position = ChessPosition.of(row, col);
+                    piece = candidate;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Collection<ChessMove> pieceMoves() {
+        return piece.pieceMoves(board, position);
+    }
+
+    @Benchmark
+    public int pieceMovesIntoList() {
+        moves.clear();
+        return piece.pieceMoves(board, position, moves);
+    }
+}
@@ -0,0 +1,34 @@
+package chess.benchmarks;
+
+/**
+ * Positions shared by the benchmarks, written in FEN
+ */
+final class Positions {
+    // The standard starting position
+    static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    // A busy middlegame with every piece type still on the board ("Kiwipete")
+    static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    // A sparse rook and pawn endgame
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    // Black to move and in check from the bishop, with blocks to choose from
+    static final String CHECK = "rnbqkbnr/ppp1pppp/8/1B1p4/4P3/8/PPPP1PPP/RNBQK1NR b KQkq - 1 2";
+    // White to move and checkmated ("Fool's mate")
+    static final String MATED = "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3";
+
+    private Positions() {
+    }
+
+    /**
+     * @return the FEN for one of the names above, for use with {@code @Param}
+     */
+    static String byName(String name) {
+        return switch (name) {
+            case "START" -> START;
+            case "MIDDLEGAME" -> MIDDLEGAME;
+            case "ENDGAME" -> ENDGAME;
+            case "CHECK" -> CHECK;
+            case "MATED" -> MATED;
+            default -> throw new IllegalArgumentException("Unknown position " + name);
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.engine.Engine;
+import chess.engine.SearchConfig;
+import chess.engine.SearchLimits;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to depth over a fixed set of positions with each selective search
+ * technique on its own, none of them, and all of them. How many nodes one
+ * pass over the set takes is reported as the secondary "nodes" result; it
+ * doesn't depend on the machine, since the searches are single-threaded and
+ * start from an empty transposition table. JMH adds that result up over the
+ * measurement iterations, so divide it by their count for a single pass.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PruningBenchmark {
+    private static final String[] POSITION_SET = {Positions.START, Positions.MIDDLEGAME, Positions.ENDGAME};
+
+    @Param({"NONE", "NULL_MOVE", "LATE_MOVE_REDUCTIONS", "FUTILITY", "ASPIRATION_WINDOWS", "ALL"})
+    public String config;
+
+    @Param({"5"})
+    public int depth;
+
+    private Engine engine;
+    private ChessGame[] games;
+    private SearchLimits limits;
+
+    /**
+     * Reports the nodes of the last pass over the positions in each iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Nodes {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        engine = new Engine(Engine.DEFAULT_HASH_MEGABYTES, 1, byName(config));
+        games = new ChessGame[POSITION_SET.length];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = Fen.load(POSITION_SET[i]);
+        }
+        limits = SearchLimits.depth(depth);
+    }
+
+    @Benchmark
+    public long timeToDepth(Nodes nodes) {
+        long total = 0;
+        for (ChessGame game : games) {
+            engine.clear();
+            total += engine.search(game, limits).getNodes();
+        }
+        nodes.nodes = total;
+        return total;
+    }
+
+    private static SearchConfig byName(String name) {
+        return switch (name) {
+            case "NONE" -> SearchConfig.none();
+            case "NULL_MOVE" -> SearchConfig.none().withNullMove(true);
+            case "LATE_MOVE_REDUCTIONS" -> SearchConfig.none().withLateMoveReductions(true);
+            case "FUTILITY" -> SearchConfig.none().withFutility(true);
+            case "ASPIRATION_WINDOWS" -> SearchConfig.none().withAspirationWindows(true);
+            case "ALL" -> SearchConfig.all();
+            default -> throw new IllegalArgumentException("Unknown config " + name);
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.engine.Engine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Engine searches to a fixed depth: how long each takes (time to depth) and
+ * how many nodes per second the search gets through
+ * <p>
+ * Every search starts from an empty transposition table, so it doesn't just
+ * replay the last one. Compare thread counts with e.g.
+ * {@code -Djmh.args="SearchBenchmark.timeToDepth -p threads=1,2,4,8 -p depth=6"}.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"START", "MIDDLEGAME", "ENDGAME"})
+    public String position;
+
+    @Param({"4"})
+    public int depth;
+
+    @Param({"1"})
+    public int threads;
+
+    private Engine engine;
+    private ChessGame game;
+    private SearchLimits limits;
+
+    /**
+     * Reports the nodes searched as a rate next to the benchmark's own score
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup
+    public void setUp() {
+        engine = new Engine(Engine.DEFAULT_HASH_MEGABYTES, threads);
+        game = Fen.load(Positions.byName(position));
+        limits = SearchLimits.depth(depth);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        engine.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public SearchResult timeToDepth() {
+        return engine.search(game, limits);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public SearchResult nodesPerSecond(Nodes counter) {
+        SearchResult result = engine.search(game, limits);
+        counter.nodes += result.getNodes();
+        return result;
+    }
+}
@@ -0,0 +1,171 @@
+package chess;
+
+/**
+ * Helpers for working with 64-bit occupancy words (bitboards)
+ * <p>
+ * Square indices run from 0 (row 1, column 1) to 63 (row 8, column 8),
+ * so bit {@code (row - 1) * 8 + (column - 1)} stands for that square.
+ */
+final class Bitboards {
+    // Every square in the leftmost and rightmost columns
+    static final long COLUMN_1 = 0x0101010101010101L;
+    static final long COLUMN_8 = 0x8080808080808080L;
+    // Every square in a given row
+    static final long ROW_1 = 0x00000000000000FFL;
+    static final long ROW_2 = 0x000000000000FF00L;
+    static final long ROW_7 = 0x00FF000000000000L;
+    static final long ROW_8 = 0xFF00000000000000L;
+
+    // Squares a knight or king on each square attacks
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    // Squares a pawn on each square attacks, indexed by color * 64 + square
+    private static final long[] PAWN_ATTACKS = new long[2 * 64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            long bit = 1L << square;
+            KNIGHT_ATTACKS[square] = knightAttacks(bit);
+            KING_ATTACKS[square] = kingAttacks(bit);
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                PAWN_ATTACKS[color.ordinal() * 64 + square] = pawnAttacks(bit, color);
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * @return the square index of a position
+     * @throws ArrayIndexOutOfBoundsException if the position is off the board,
+     *                                        as indexing the old 8x8 array did
+     */
+    static int square(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            throw new ArrayIndexOutOfBoundsException("Off the board: row " + row + ", column " + col);
+        }
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @return the row (1-8) of a square index
+     */
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the column (1-8) of a square index
+     */
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    /**
+     * Shifts every bit one step in a direction, dropping bits that would wrap
+     * around the left or right edge of the board
+     *
+     * @param bits the squares to shift
+     * @param rows how many rows to move up (negative moves down)
+     * @param cols how many columns to move right (negative moves left)
+     * @return the shifted squares
+     */
+    static long shift(long bits, int rows, int cols) {
+        // Drop squares that would leave the board sideways
+        for (int c = 0; c < cols; c++) {
+            bits &= ~(COLUMN_8 >>> c);
+        }
+        for (int c = 0; c < -cols; c++) {
+            bits &= ~(COLUMN_1 << c);
+        }
+        int offset = rows * 8 + cols;
+        return offset >= 0 ? bits << offset : bits >>> -offset;
+    }
+
+    /**
+     * @return squares a knight standing on any of the given squares attacks
+     */
+    static long knightAttacks(long knights) {
+        return shift(knights, 2, 1) | shift(knights, 2, -1)
+                | shift(knights, -2, 1) | shift(knights, -2, -1)
+                | shift(knights, 1, 2) | shift(knights, 1, -2)
+                | shift(knights, -1, 2) | shift(knights, -1, -2);
+    }
+
+    /**
+     * @return squares a king standing on any of the given squares attacks
+     */
+    static long kingAttacks(long kings) {
+        long sideways = shift(kings, 0, 1) | shift(kings, 0, -1);
+        long row = kings | sideways;
+        return sideways | shift(row, 1, 0) | shift(row, -1, 0);
+    }
+
+    /**
+     * @return squares pawns of the given color standing on the given squares attack
+     */
+    static long pawnAttacks(long pawns, ChessGame.TeamColor color) {
+        int direction = color == ChessGame.TeamColor.WHITE ? 1 : -1;
+        return shift(pawns, direction, 1) | shift(pawns, direction, -1);
+    }
+
+    /**
+     * @return squares a knight on the square attacks
+     */
+    static long knight(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @return squares a king on the square attacks
+     */
+    static long king(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @return squares a pawn of the given color on the square attacks
+     */
+    static long pawn(int square, ChessGame.TeamColor color) {
+        return PAWN_ATTACKS[color.ordinal() * 64 + square];
+    }
+
+    /**
+     * @return squares a piece of the given type and color on the square attacks
+     * given the board's occupancy
+     */
+    static long attacks(ChessPiece.PieceType type, ChessGame.TeamColor color, int square, long occupied) {
+        return switch (type) {
+            case BISHOP -> MagicAttacks.bishop(square, occupied);
+            case ROOK -> MagicAttacks.rook(square, occupied);
+            case QUEEN -> MagicAttacks.queen(square, occupied);
+            case KNIGHT -> knight(square);
+            case KING -> king(square);
+            case PAWN -> pawn(square, color);
+        };
+    }
+
+    /**
+     * Slides from a square in one direction until the edge of the board or the
+     * first occupied square, which is included
+     *
+     * @return every square reached along the ray
+     */
+    static long ray(int square, long occupied, int rows, int cols) {
+        long attacks = 0;
+        long bit = 1L << square;
+        while (true) {
+            bit = shift(bit, rows, cols);
+            if (bit == 0) {
+                return attacks;
+            }
+            attacks |= bit;
+            if ((bit & occupied) != 0) {
+                return attacks;
+            }
+        }
+    }
+}
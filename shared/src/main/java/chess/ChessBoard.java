@@ -1,18 +1,49 @@
 package chess;
 
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Only {@code squares} is serialized, as {@code {"squares": [64 piece codes,
+ * a1 first]}}; everything else is worked out from it again on load.
  */
+@JsonAdapter(ChessBoard.RebuildOnLoad.class)
 public class ChessBoard {
-    private ChessPiece[][] squares = new ChessPiece[8][8];
+    // The code (see ChessPiece.code) of the piece on each square, indexed by square
+    // (see Bitboards.square)
+    private final byte[] squares = new byte[64];
+
+    // The rest follows from squares, see rebuild
+    // One occupancy word per (color, piece type), see pieceIndex
+    private final transient long[] pieceBoards = new long[12];
+    // One occupancy word per color
+    private final transient long[] colorBoards = new long[2];
+    // Every occupied square
+    private transient long occupied;
+    // Zobrist key of the pieces on the board, updated as pieces come and go
+    private transient long zobristKey;
+    // How many pieces of each color attack each square, indexed by color * 64 + square
+    private final transient byte[] attackCounts = new byte[128];
+    // Every square each color attacks at least once
+    private final transient long[] attackedBoards = new long[2];
+    // Where each color's king is, or -1 if it has none
+    private final transient int[] kingSquares = {-1, -1};
+
     public ChessBoard() {
-        
+
     }
 
     /**
@@ -22,7 +53,11 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[8-position.getRow()][position.getColumn()-1] = piece;
+        int square = Bitboards.square(position);
+        removePiece(square);
+        if (piece != null) {
+            putPiece(square, piece);
+        }
     }
 
     /**
@@ -33,7 +68,7 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[8-position.getRow()][position.getColumn()-1];
+        return ChessPiece.fromCode(squares[Bitboards.square(position)]);
     }
 
     /**
@@ -42,17 +77,12 @@ public class ChessBoard {
      */
     public void resetBoard() {
 
+        clear();
         // Set pawns
         for (int col = 1; col < 9; col++) {
-            addPiece(new ChessPosition(2,col), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7,col), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2,col), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7,col), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
-        // Set empty space
-        for (int col = 1; col < 9; col++) {
-            for (int row = 3; row < 7; row++) {
-                addPiece(new ChessPosition(row,col), null);
-                addPiece(new ChessPosition(row,col), null);
-            }}
         // Set other pieces
         ChessGame.TeamColor[] colors = {ChessGame.TeamColor.WHITE, ChessGame.TeamColor.BLACK};
         int[] rows = {1, 8};
@@ -60,14 +90,333 @@ public class ChessBoard {
         for (int i = 0; i < 2; i++) {
             ChessGame.TeamColor color = colors[i];
             int row = rows[i];
-            addPiece(new ChessPosition(row, 1), new ChessPiece(color, ChessPiece.PieceType.ROOK));
-            addPiece(new ChessPosition(row, 2), new ChessPiece(color, ChessPiece.PieceType.KNIGHT));
-            addPiece(new ChessPosition(row, 3), new ChessPiece(color, ChessPiece.PieceType.BISHOP));
-            addPiece(new ChessPosition(row, 4), new ChessPiece(color, ChessPiece.PieceType.QUEEN));
-            addPiece(new ChessPosition(row, 5), new ChessPiece(color, ChessPiece.PieceType.KING));
-            addPiece(new ChessPosition(row, 6), new ChessPiece(color, ChessPiece.PieceType.BISHOP));
-            addPiece(new ChessPosition(row, 7), new ChessPiece(color, ChessPiece.PieceType.KNIGHT));
-            addPiece(new ChessPosition(row, 8), new ChessPiece(color, ChessPiece.PieceType.ROOK));
+            addPiece(ChessPosition.of(row, 1), ChessPiece.of(color, ChessPiece.PieceType.ROOK));
+            addPiece(ChessPosition.of(row, 2), ChessPiece.of(color, ChessPiece.PieceType.KNIGHT));
+            addPiece(ChessPosition.of(row, 3), ChessPiece.of(color, ChessPiece.PieceType.BISHOP));
+            addPiece(ChessPosition.of(row, 4), ChessPiece.of(color, ChessPiece.PieceType.QUEEN));
+            addPiece(ChessPosition.of(row, 5), ChessPiece.of(color, ChessPiece.PieceType.KING));
+            addPiece(ChessPosition.of(row, 6), ChessPiece.of(color, ChessPiece.PieceType.BISHOP));
+            addPiece(ChessPosition.of(row, 7), ChessPiece.of(color, ChessPiece.PieceType.KNIGHT));
+            addPiece(ChessPosition.of(row, 8), ChessPiece.of(color, ChessPiece.PieceType.ROOK));
+        }
+    }
+
+    /**
+     * Empties the board
+     */
+    private void clear() {
+        Arrays.fill(pieceBoards, 0);
+        Arrays.fill(colorBoards, 0);
+        occupied = 0;
+        Arrays.fill(squares, (byte) 0);
+        zobristKey = 0;
+        Arrays.fill(attackCounts, (byte) 0);
+        Arrays.fill(attackedBoards, 0);
+        Arrays.fill(kingSquares, -1);
+    }
+
+    /**
+     * Works out everything else from squares again, after squares was filled
+     * in on its own
+     */
+    private void rebuild() {
+        byte[] codes = squares.clone();
+        clear();
+        for (int square = 0; square < 64; square++) {
+            if (codes[square] != 0) {
+                putPiece(square, ChessPiece.fromCode(codes[square]));
+            }
+        }
+    }
+
+    /**
+     * Lets Gson read and write boards field by field as usual, then rebuilds
+     * the fields it skipped
+     */
+    static final class RebuildOnLoad implements TypeAdapterFactory {
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            TypeAdapter<T> fields = gson.getDelegateAdapter(this, type);
+            return new TypeAdapter<>() {
+                @Override
+                public void write(JsonWriter out, T board) throws IOException {
+                    fields.write(out, board);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    T board = fields.read(in);
+                    if (board != null) {
+                        ((ChessBoard) board).rebuild();
+                    }
+                    return board;
+                }
+            };
+        }
+    }
+
+    /**
+     * Finds a team's king without scanning the board
+     *
+     * @param color the team whose king to find
+     * @return the king's position, or null if the team has no king
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquares[color.ordinal()];
+        return square < 0 ? null : ChessPosition.of(square);
+    }
+
+    /**
+     * Makes an independent copy of this board. Every field is a primitive or
+     * a primitive array, so this is a handful of flat array copies rather than
+     * re-adding each piece.
+     *
+     * @return the copy
+     */
+    public ChessBoard copy() {
+        ChessBoard copy = new ChessBoard();
+        System.arraycopy(pieceBoards, 0, copy.pieceBoards, 0, pieceBoards.length);
+        System.arraycopy(colorBoards, 0, copy.colorBoards, 0, colorBoards.length);
+        copy.occupied = occupied;
+        System.arraycopy(squares, 0, copy.squares, 0, squares.length);
+        copy.zobristKey = zobristKey;
+        System.arraycopy(attackCounts, 0, copy.attackCounts, 0, attackCounts.length);
+        System.arraycopy(attackedBoards, 0, copy.attackedBoards, 0, attackedBoards.length);
+        System.arraycopy(kingSquares, 0, copy.kingSquares, 0, kingSquares.length);
+        return copy;
+    }
+
+    /**
+     * Determines if any piece of a team attacks a square, from the attack
+     * counts kept up to date as pieces move instead of generating the team's
+     * moves
+     *
+     * @param position the square to look at
+     * @param color    the team that might be attacking it
+     * @return True if at least one piece of that team attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor color) {
+        return isSquareAttacked(Bitboards.square(position), color);
+    }
+
+    /**
+     * Finds every piece of a team that attacks a square
+     * <p>
+     * Bit {@code (row - 1) * 8 + (column - 1)} of the result is set for each
+     * attacker, so {@link Long#bitCount} gives how many there are.
+     *
+     * @param position the square to look at
+     * @param color    the team whose attackers to find
+     * @return the attackers' squares as a bitmask
+     */
+    public long attackersOf(ChessPosition position, ChessGame.TeamColor color) {
+        return attackersOf(Bitboards.square(position), color, occupied);
+    }
+
+    /**
+     * Gets the Zobrist key of the pieces on the board: equal boards always have
+     * equal keys, and different boards almost never do
+     * <p>
+     * Whose turn it is and other game state are not part of the board, see
+     * {@link ChessGame#zobristKey()} for a key that includes them.
+     *
+     * @return the 64-bit key
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return the square of a team's king, or -1 if it has none
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * @return the piece on a square index (see {@link Moves#square}), or null
+     * if it is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return ChessPiece.fromCode(squares[square]);
+    }
+
+    /**
+     * @return every square a piece of the given team attacks
+     */
+    long attackedSquares(ChessGame.TeamColor color) {
+        return attackedBoards[color.ordinal()];
+    }
+
+    /**
+     * Looks outward from a square for pieces of a team that attack it
+     *
+     * @param occupied the occupancy to use for sliders, which lets callers
+     *                 look through pieces that are about to move
+     * @return the squares of every attacker
+     */
+    long attackersOf(int square, ChessGame.TeamColor color, long occupied) {
+        long queens = pieces(color, ChessPiece.PieceType.QUEEN);
+        // A pawn attacks this square if a pawn of the other color here would attack it
+        return (Bitboards.pawn(square, ChessGame.opponent(color)) & pieces(color, ChessPiece.PieceType.PAWN))
+                | (Bitboards.knight(square) & pieces(color, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.king(square) & pieces(color, ChessPiece.PieceType.KING))
+                | (MagicAttacks.bishop(square, occupied) & (pieces(color, ChessPiece.PieceType.BISHOP) | queens))
+                | (MagicAttacks.rook(square, occupied) & (pieces(color, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * @return true if any piece of the given team attacks a square, read from
+     * the attack map
+     */
+    boolean isSquareAttacked(int square, ChessGame.TeamColor color) {
+        return attackCount(square, color) > 0;
+    }
+
+    /**
+     * @return how many pieces of the given team attack a square
+     */
+    int attackCount(int square, ChessGame.TeamColor color) {
+        return attackCounts[color.ordinal() * 64 + square];
+    }
+
+    /**
+     * @return the index into the per-piece occupancy words for a color and type
+     */
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * @return every square holding a piece of the given color and type, with
+     * bit {@link Moves#square} set for each
+     */
+    public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieceBoards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return every square holding a piece of the given color, with bit
+     * {@link Moves#square} set for each
+     */
+    public long teamPieces(ChessGame.TeamColor color) {
+        return colorBoards[color.ordinal()];
+    }
+
+    /**
+     * @return every occupied square
+     */
+    long occupied() {
+        return occupied;
+    }
+
+    /**
+     * Puts a piece on a square that must be empty
+     */
+    void putPiece(int square, ChessPiece piece) {
+        long bit = 1L << square;
+        // Sliders aimed at this square will be blocked here from now on
+        long blocked = slidersAttacking(square);
+        updateSliderAttacks(blocked, -1);
+
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBoards[index] |= bit;
+        colorBoards[piece.getTeamColor().ordinal()] |= bit;
+        occupied |= bit;
+        squares[square] = (byte) (index + 1);
+        zobristKey ^= Zobrist.PIECES[index][square];
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+
+        updateSliderAttacks(blocked, 1);
+        updateAttacks(piece.getTeamColor(),
+                Bitboards.attacks(piece.getPieceType(), piece.getTeamColor(), square, occupied), 1);
+    }
+
+    /**
+     * Clears a square, if anything is on it
+     *
+     * @return the piece that was on the square, or null
+     */
+    ChessPiece removePiece(int square) {
+        ChessPiece piece = ChessPiece.fromCode(squares[square]);
+        if (piece == null) {
+            return null;
+        }
+        long bit = 1L << square;
+        updateAttacks(piece.getTeamColor(),
+                Bitboards.attacks(piece.getPieceType(), piece.getTeamColor(), square, occupied), -1);
+        // Sliders blocked by this piece will see past it from now on
+        long unblocked = slidersAttacking(square);
+        updateSliderAttacks(unblocked, -1);
+
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieceBoards[index] &= ~bit;
+        colorBoards[piece.getTeamColor().ordinal()] &= ~bit;
+        occupied &= ~bit;
+        squares[square] = 0;
+        zobristKey ^= Zobrist.PIECES[index][square];
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            updateKingSquare(piece.getTeamColor());
+        }
+
+        updateSliderAttacks(unblocked, 1);
+        return piece;
+    }
+
+    /**
+     * Re-reads a team's king square after its king moved, arrived or left
+     */
+    private void updateKingSquare(ChessGame.TeamColor color) {
+        long king = pieces(color, ChessPiece.PieceType.KING);
+        kingSquares[color.ordinal()] = king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * @return the squares of every bishop, rook or queen (of either color)
+     * whose attacks reach a square
+     */
+    private long slidersAttacking(int square) {
+        long queens = pieceBoards[pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)]
+                | pieceBoards[pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN)];
+        long bishops = pieceBoards[pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)]
+                | pieceBoards[pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP)];
+        long rooks = pieceBoards[pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK)]
+                | pieceBoards[pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK)];
+        return (MagicAttacks.bishop(square, occupied) & (bishops | queens))
+                | (MagicAttacks.rook(square, occupied) & (rooks | queens));
+    }
+
+    /**
+     * Adds or removes the attacks of the sliders on the given squares, using the
+     * current occupancy
+     */
+    private void updateSliderAttacks(long sliders, int change) {
+        while (sliders != 0) {
+            int square = Long.numberOfTrailingZeros(sliders);
+            sliders &= sliders - 1;
+            ChessPiece slider = ChessPiece.fromCode(squares[square]);
+            updateAttacks(slider.getTeamColor(),
+                    Bitboards.attacks(slider.getPieceType(), slider.getTeamColor(), square, occupied), change);
+        }
+    }
+
+    /**
+     * Adds one to (or takes one from) a team's attack count on every given square
+     */
+    private void updateAttacks(ChessGame.TeamColor color, long attacks, int change) {
+        int base = color.ordinal() * 64;
+        while (attacks != 0) {
+            int square = Long.numberOfTrailingZeros(attacks);
+            attacks &= attacks - 1;
+            int count = attackCounts[base + square] + change;
+            attackCounts[base + square] = (byte) count;
+            if (count == 0) {
+                attackedBoards[color.ordinal()] &= ~(1L << square);
+            } else {
+                attackedBoards[color.ordinal()] |= 1L << square;
+            }
         }
     }
 
@@ -77,11 +426,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        // Different keys always mean different boards; equal keys are confirmed
+        return zobristKey == that.zobristKey && Arrays.equals(pieceBoards, that.pieceBoards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 }
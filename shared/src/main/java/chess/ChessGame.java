@@ -1,6 +1,11 @@
 package chess;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -9,25 +14,122 @@ import java.util.Collection;
  * signature of the existing methods.
  */
 public class ChessGame {
+    // Moves the undo stack holds before it has to grow
+    private static final int UNDO_CAPACITY = 64;
+    // Position keys the history keeps, which covers the fifty-move window of
+    // 100 plies. Must be a power of two.
+    private static final int HISTORY_SIZE = 128;
+    // Where each king starts, which is where castling moves from
+    private static final int WHITE_KING_HOME = 4;
+    private static final int BLACK_KING_HOME = 60;
+    // Squares between the king and rook, shifted to the king's square for
+    // kingside and to the rook's square for queenside
+    private static final long KINGSIDE_GAP = 0b110L;
+    private static final long QUEENSIDE_GAP = 0b1110L;
+    // Squares the king passes through and lands on, shifted the same way
+    private static final long KINGSIDE_PATH = 0b110L;
+    private static final long QUEENSIDE_PATH = 0b1100L;
+    // Rows 1 and 8, where pawns promote
+    private static final long PROMOTION_ROWS = 0xFF000000000000FFL;
+    // Castling rights that survive a move from or to each square: moving a king
+    // or rook, or capturing a rook, loses the rights it was part of
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, 15);
+        CASTLING_KEPT[WHITE_KING_HOME] &= ~(GameState.WHITE_KINGSIDE | GameState.WHITE_QUEENSIDE);
+        CASTLING_KEPT[WHITE_KING_HOME + 3] &= ~GameState.WHITE_KINGSIDE;
+        CASTLING_KEPT[WHITE_KING_HOME - 4] &= ~GameState.WHITE_QUEENSIDE;
+        CASTLING_KEPT[BLACK_KING_HOME] &= ~(GameState.BLACK_KINGSIDE | GameState.BLACK_QUEENSIDE);
+        CASTLING_KEPT[BLACK_KING_HOME + 3] &= ~GameState.BLACK_KINGSIDE;
+        CASTLING_KEPT[BLACK_KING_HOME - 4] &= ~GameState.BLACK_QUEENSIDE;
+    }
+
+    // The board being played on
+    private ChessBoard board;
+    // The team whose turn it is
+    private TeamColor teamTurn;
+    // Castling rights, en passant square and move clocks, packed by GameState
+    private long state;
+
+    // The undo stack and key history below are left out of serialized games:
+    // a loaded game starts a new history from its position
+    // Undo stack: one entry per move played since the board was set, most recent last
+    private transient int undoSize;
+    // The packed move (see Moves)
+    private transient int[] undoMoves = new int[UNDO_CAPACITY];
+    // The code (see ChessPiece.code) of the piece that moved, so promoted pawns can be put back
+    private transient byte[] undoMoved = new byte[UNDO_CAPACITY];
+    // The code of the piece the move captured, or 0
+    private transient byte[] undoCaptured = new byte[UNDO_CAPACITY];
+    // The game state before the move
+    private transient long[] undoStates = new long[UNDO_CAPACITY];
+
+    // Ring buffer of position keys for repetition checks: the key before the
+    // move at each ply (undo stack index) is at ply % HISTORY_SIZE
+    private transient long[] keyHistory = new long[HISTORY_SIZE];
+    // The oldest ply whose key hasn't been overwritten by a later ply's
+    private transient int historyStart;
+
+    // Checks and pins for the team being generated for, see findChecksAndPins
+    // The team's king square, or -1 if it has no king
+    private transient int kingSquare;
+    // Enemy pieces giving check
+    private transient long checkers;
+    // Squares a non-king move must land on: the checker or a square blocking it
+    private transient long checkMask;
+    // The team's pieces pinned to their king
+    private transient long pinned;
+    // For each pinned piece, the squares it can move to without leaving the pin
+    private transient long[] pinRays = new long[64];
+
+    // Every valid move for cachedTeam in the position whose key is cachedKey
+    private transient MoveList cachedMoves = new MoveList();
+    // The team the cached moves are for, or null if nothing is cached
+    private transient TeamColor cachedTeam;
+    private transient long cachedKey;
+    // The cached moves as ChessMoves, built the first time someone asks
+    private transient List<ChessMove> cachedChessMoves;
+    // Reused for one piece at a time when moves only need testing or counting
+    private transient MoveList scratchMoves = new MoveList(32);
 
     public ChessGame() {
+        board = new ChessBoard();
+        board.resetBoard();
+        teamTurn = TeamColor.WHITE;
+        state = GameState.of(castlingRights(board), GameState.NO_SQUARE, 0, 1);
+    }
 
+    /**
+     * Starts a game from a position another game was in
+     *
+     * @param board a board no one else holds
+     * @param state the game state, packed by GameState
+     */
+    ChessGame(ChessBoard board, TeamColor teamTurn, long state) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.state = state;
     }
 
     /**
      * @return Which team's turn it is
      */
     public TeamColor getTeamTurn() {
-        throw new RuntimeException("Not implemented");
+        return teamTurn;
     }
 
     /**
-     * Set's which teams turn it is
+     * Set's which teams turn it is. An en passant capture is only possible
+     * right after the double move that allows it, so setting the turn by hand
+     * gives it up.
      *
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        throw new RuntimeException("Not implemented");
+        teamTurn = team;
+        state = GameState.of(GameState.castling(state), GameState.NO_SQUARE,
+                GameState.halfmoveClock(state), GameState.fullmoveNumber(state));
     }
 
     /**
@@ -38,6 +140,13 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * @return the team playing against the given one
+     */
+    static TeamColor opponent(TeamColor color) {
+        return color == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -46,7 +155,35 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        throw new RuntimeException("Not implemented");
+        ChessPiece piece = board.getPiece(startPosition);
+        if (piece == null) {
+            return null;
+        }
+        int square = Bitboards.square(startPosition);
+        MoveList moves = cachedValidMoves(piece.getTeamColor());
+        ArrayList<ChessMove> pieceMoves = new ArrayList<>();
+        for (int i = 0; i < moves.size(); i++) {
+            if (Moves.from(moves.get(i)) == square) {
+                pieceMoves.add(ChessMove.of(moves.get(i)));
+            }
+        }
+        return pieceMoves;
+    }
+
+    /**
+     * Gets every valid move for a team in one pass. The result is cached for
+     * the current position, so asking again (or asking validMoves, isInCheckmate
+     * or isInStalemate) before the position changes doesn't generate again.
+     *
+     * @param teamColor the team to get valid moves for
+     * @return an unmodifiable collection of the team's valid moves
+     */
+    public Collection<ChessMove> allValidMoves(TeamColor teamColor) {
+        MoveList moves = cachedValidMoves(teamColor);
+        if (cachedChessMoves == null) {
+            cachedChessMoves = Collections.unmodifiableList(moves.toChessMoves());
+        }
+        return cachedChessMoves;
     }
 
     /**
@@ -56,7 +193,32 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        throw new RuntimeException("Not implemented");
+        if (!isOnBoard(move.getStartPosition()) || !isOnBoard(move.getEndPosition())) {
+            throw new InvalidMoveException("The move starts or ends off the board");
+        }
+        ChessPiece piece = board.getPiece(move.getStartPosition());
+        if (piece == null) {
+            throw new InvalidMoveException("There is no piece at the start position");
+        }
+        if (piece.getTeamColor() != teamTurn) {
+            throw new InvalidMoveException("It is not " + piece.getTeamColor() + "'s turn");
+        }
+
+        // Find the matching valid move, which also carries its flags
+        MoveList moves = cachedValidMoves(teamTurn);
+        int requested = Moves.encode(move);
+        for (int i = 0; i < moves.size(); i++) {
+            if (Moves.sameMove(moves.get(i), requested)) {
+                makeMove(moves.get(i));
+                return;
+            }
+        }
+        throw new InvalidMoveException("That move is not valid");
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
     }
 
     /**
@@ -66,7 +228,8 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        int king = board.kingSquare(teamColor);
+        return king >= 0 && board.isSquareAttacked(king, opponent(teamColor));
     }
 
     /**
@@ -76,7 +239,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
     }
 
     /**
@@ -87,7 +250,133 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return !isInCheck(teamColor) && !hasAnyLegalMove(teamColor);
+    }
+
+    /**
+     * Determines if the game is drawn by threefold repetition or the fifty-move
+     * rule. A checkmate on the move that reaches fifty moves still wins.
+     *
+     * @return True if the game is drawn
+     */
+    public boolean isDraw() {
+        return isThreefoldRepetition() || (isFiftyMoveDraw() && !isInCheckmate(teamTurn));
+    }
+
+    /**
+     * @return True if the current position has come up twice before, with the
+     * same team to move, castling rights and en passant square
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 2;
+    }
+
+    /**
+     * @return True if fifty moves by each team have gone by without a capture
+     * or a pawn move
+     */
+    public boolean isFiftyMoveDraw() {
+        return GameState.halfmoveClock(state) >= 100;
+    }
+
+    /**
+     * Counts how many times the current position came up earlier in the game.
+     * Only positions since the last capture or pawn move can repeat it, and of
+     * those only every other one has the same team to move, so the scan is
+     * short.
+     *
+     * @return how many earlier times the position occurred
+     */
+    public int repetitionCount() {
+        long key = zobristKey();
+        int oldest = Math.max(historyStart, undoSize - GameState.halfmoveClock(state));
+        int count = 0;
+        for (int ply = undoSize - 2; ply >= oldest; ply -= 2) {
+            if (keyHistory[ply & (HISTORY_SIZE - 1)] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determines if a team has at least one valid move, stopping at the first
+     * piece that has one
+     *
+     * @param teamColor which team to check
+     * @return True if the team can move
+     */
+    public boolean hasAnyLegalMove(TeamColor teamColor) {
+        if (isCached(teamColor)) {
+            return !cachedMoves.isEmpty();
+        }
+        findChecksAndPins(teamColor);
+        long pieces = board.teamPieces(teamColor);
+        // Try the king first: when in check it is the piece most likely to move
+        if (kingSquare >= 0) {
+            if (hasValidMove(kingSquare)) {
+                return true;
+            }
+            pieces &= ~(1L << kingSquare);
+        }
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            if (hasValidMove(square)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Assumes findChecksAndPins has run for the piece's team
+     *
+     * @return true if the piece on the square has at least one valid move
+     */
+    private boolean hasValidMove(int square) {
+        scratchMoves.clear();
+        addValidMoves(square, board.getPiece(square), -1L, scratchMoves);
+        return !scratchMoves.isEmpty();
+    }
+
+    /**
+     * Counts a team's valid moves without building any ChessMove objects, for
+     * example to measure mobility
+     *
+     * @param teamColor which team to count for
+     * @return how many valid moves the team has
+     */
+    public int countLegalMoves(TeamColor teamColor) {
+        if (isCached(teamColor)) {
+            return cachedMoves.size();
+        }
+        findChecksAndPins(teamColor);
+        long own = board.teamPieces(teamColor);
+        long occupied = board.occupied();
+        boolean doubleCheck = Long.bitCount(checkers) > 1;
+        int count = 0;
+        long pieces = own;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            ChessPiece piece = board.getPiece(square);
+            ChessPiece.PieceType type = piece.getPieceType();
+            if (kingSquare < 0 || square == kingSquare || type == ChessPiece.PieceType.PAWN) {
+                // Kings and pawns have special rules, so count what the generator produces
+                scratchMoves.clear();
+                addValidMoves(square, piece, -1L, scratchMoves);
+                count += scratchMoves.size();
+            } else if (!doubleCheck) {
+                // Every other piece gets one move per allowed target square
+                long allowed = checkMask;
+                if ((pinned & (1L << square)) != 0) {
+                    allowed &= pinRays[square];
+                }
+                count += Long.bitCount(Bitboards.attacks(type, teamColor, square, occupied) & ~own & allowed);
+            }
+        }
+        return count;
     }
 
     /**
@@ -96,7 +385,12 @@ public class ChessGame {
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        throw new RuntimeException("Not implemented");
+        this.board = board;
+        // Earlier moves were played on a different board
+        undoSize = 0;
+        historyStart = 0;
+        cachedTeam = null;
+        state = GameState.of(castlingRights(board), GameState.NO_SQUARE, 0, 1);
     }
 
     /**
@@ -105,6 +399,501 @@ public class ChessGame {
      * @return the chessboard
      */
     public ChessBoard getBoard() {
-        throw new RuntimeException("Not implemented");
+        return board;
+    }
+
+    /**
+     * Plays a move in place and passes the turn, without checking that it is
+     * valid. The move is pushed onto the undo stack so {@link #unmakeMove()}
+     * can take it back exactly.
+     *
+     * @param move a packed move from this game's move generation (see {@link Moves})
+     */
+    public void makeMove(int move) {
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        keyHistory[undoSize & (HISTORY_SIZE - 1)] = zobristKey();
+        historyStart = Math.max(historyStart, undoSize - (HISTORY_SIZE - 1));
+        undoStates[undoSize] = state;
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        ChessPiece piece = board.removePiece(from);
+        ChessPiece captured = board.removePiece(Moves.is(move, Moves.EN_PASSANT) ? enPassantVictim(from, to) : to);
+
+        undoMoves[undoSize] = move;
+        undoMoved[undoSize] = ChessPiece.code(piece);
+        undoCaptured[undoSize] = ChessPiece.code(captured);
+        undoSize++;
+
+        ChessPiece.PieceType promotion = Moves.promotion(move);
+        board.putPiece(to, promotion == null ? piece : ChessPiece.of(piece.getTeamColor(), promotion));
+        if (Moves.is(move, Moves.CASTLE)) {
+            // The rook jumps over the king to the square it passed
+            board.putPiece((from + to) >>> 1, board.removePiece(castlingRook(from, to)));
+        }
+
+        TeamColor mover = piece.getTeamColor();
+        int enPassant = GameState.NO_SQUARE;
+        if (Moves.is(move, Moves.DOUBLE_PUSH) && canCaptureEnPassant((from + to) >>> 1, opponent(mover))) {
+            enPassant = (from + to) >>> 1;
+        }
+        boolean irreversible = captured != null || piece.getPieceType() == ChessPiece.PieceType.PAWN;
+        state = GameState.of(GameState.castling(state) & CASTLING_KEPT[from] & CASTLING_KEPT[to], enPassant,
+                irreversible ? 0 : GameState.halfmoveClock(state) + 1,
+                GameState.fullmoveNumber(state) + (mover == TeamColor.BLACK ? 1 : 0));
+        teamTurn = opponent(teamTurn);
+    }
+
+    /**
+     * Passes the turn without moving, for searches that ask what the other
+     * team could do if it moved twice. The en passant square is cleared, and
+     * the halfmove clock restarts so positions from before the pass don't
+     * count as repeats of ones after it. Take it back with {@link #unmakeMove()}.
+     */
+    public void makeNullMove() {
+        if (undoSize == undoMoves.length) {
+            growUndoStack();
+        }
+        keyHistory[undoSize & (HISTORY_SIZE - 1)] = zobristKey();
+        historyStart = Math.max(historyStart, undoSize - (HISTORY_SIZE - 1));
+        undoStates[undoSize] = state;
+        undoMoves[undoSize] = Moves.NONE;
+        undoMoved[undoSize] = 0;
+        undoCaptured[undoSize] = 0;
+        undoSize++;
+
+        state = GameState.of(GameState.castling(state), GameState.NO_SQUARE, 0,
+                GameState.fullmoveNumber(state) + (teamTurn == TeamColor.BLACK ? 1 : 0));
+        teamTurn = opponent(teamTurn);
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(int)},
+     * {@link #makeMove(ChessMove)} or {@link #makeNullMove()}, restoring the
+     * position exactly
+     *
+     * @return the packed move that was taken back, or {@link Moves#NONE} for a null move
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public int unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        undoSize--;
+        int move = undoMoves[undoSize];
+        if (move == Moves.NONE) {
+            state = undoStates[undoSize];
+            teamTurn = opponent(teamTurn);
+            return move;
+        }
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+
+        if (Moves.is(move, Moves.CASTLE)) {
+            board.putPiece(castlingRook(from, to), board.removePiece((from + to) >>> 1));
+        }
+        board.removePiece(to);
+        board.putPiece(from, ChessPiece.fromCode(undoMoved[undoSize]));
+        if (undoCaptured[undoSize] != 0) {
+            int square = Moves.is(move, Moves.EN_PASSANT) ? enPassantVictim(from, to) : to;
+            board.putPiece(square, ChessPiece.fromCode(undoCaptured[undoSize]));
+        }
+        state = undoStates[undoSize];
+        teamTurn = opponent(teamTurn);
+        return move;
+    }
+
+    /**
+     * Takes back the last move made in this game, for example when a player
+     * asks for a takeback
+     *
+     * @return the move taken back, or null if no moves have been made since the
+     * board was set
+     */
+    public ChessMove takeBack() {
+        return undoSize == 0 ? null : ChessMove.of(unmakeMove());
+    }
+
+    /**
+     * @return how many moves can currently be taken back
+     */
+    public int movesPlayed() {
+        return undoSize;
+    }
+
+    private void growUndoStack() {
+        int capacity = undoMoves.length * 2;
+        undoMoves = Arrays.copyOf(undoMoves, capacity);
+        undoMoved = Arrays.copyOf(undoMoved, capacity);
+        undoCaptured = Arrays.copyOf(undoCaptured, capacity);
+        undoStates = Arrays.copyOf(undoStates, capacity);
+    }
+
+    /**
+     * @return the square of the rook that castles with a king moving between two squares
+     */
+    private static int castlingRook(int kingFrom, int kingTo) {
+        return kingTo > kingFrom ? kingTo + 1 : kingTo - 2;
+    }
+
+    /**
+     * @return the square of the pawn an en passant capture between two squares takes,
+     * which is beside the capturing pawn rather than on the square it lands on
+     */
+    private static int enPassantVictim(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    /**
+     * @return true if a pawn of the given team could capture onto a square
+     * passed by a pawn's double move
+     */
+    private boolean canCaptureEnPassant(int square, TeamColor capturer) {
+        return (Bitboards.pawn(square, opponent(capturer)) & board.pieces(capturer, ChessPiece.PieceType.PAWN)) != 0;
+    }
+
+    /**
+     * Works out the castling rights a board allows from where its pieces stand:
+     * each king and rook still on its starting square is taken not to have moved
+     */
+    private static int castlingRights(ChessBoard board) {
+        int rights = 0;
+        for (TeamColor color : TeamColor.values()) {
+            int home = color == TeamColor.WHITE ? WHITE_KING_HOME : BLACK_KING_HOME;
+            if (board.kingSquare(color) != home) {
+                continue;
+            }
+            long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+            int shift = color.ordinal() * 2;
+            if ((rooks & (1L << (home + 3))) != 0) {
+                rights |= GameState.WHITE_KINGSIDE << shift;
+            }
+            if ((rooks & (1L << (home - 4))) != 0) {
+                rights |= GameState.WHITE_QUEENSIDE << shift;
+            }
+        }
+        return rights;
+    }
+
+    /**
+     * Gets the Zobrist key of the whole position: the pieces on the board plus
+     * whose turn it is. Equal positions always have equal keys, so this is an
+     * O(1) identity for caches and repetition checks.
+     *
+     * @return the 64-bit key
+     */
+    public long zobristKey() {
+        long key = board.zobristKey() ^ Zobrist.CASTLING[GameState.castling(state)];
+        int enPassant = GameState.enPassant(state);
+        if (enPassant != GameState.NO_SQUARE) {
+            key ^= Zobrist.EN_PASSANT[enPassant & 7];
+        }
+        return teamTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
+    /**
+     * Copies the game, including the moves that can be taken back and the
+     * earlier positions that count towards repetition, so the copy can be
+     * played on (for example by a search) and still see the game's draws
+     *
+     * @return a game that shares nothing with this one
+     */
+    public ChessGame copy() {
+        ChessGame copy = new ChessGame(board.copy(), teamTurn, state);
+        copy.undoSize = undoSize;
+        copy.undoMoves = undoMoves.clone();
+        copy.undoMoved = undoMoved.clone();
+        copy.undoCaptured = undoCaptured.clone();
+        copy.undoStates = undoStates.clone();
+        copy.keyHistory = keyHistory.clone();
+        copy.historyStart = historyStart;
+        return copy;
+    }
+
+    /**
+     * Takes a copy of the position that can't change, so it can be handed to
+     * other threads (observers, analysis, storage) without locking this game
+     *
+     * @return the snapshot
+     */
+    public GameSnapshot snapshot() {
+        return new GameSnapshot(board.copy(), teamTurn, state, zobristKey());
+    }
+
+    /**
+     * Gets the castling rights, en passant square and move clocks, which
+     * {@link GameState} can unpack
+     *
+     * @return the packed game state
+     */
+    public long gameState() {
+        return state;
+    }
+
+    /**
+     * Replaces the game state, for example with what a FEN string says. An en
+     * passant square no pawn of the team to move can capture onto is dropped,
+     * as {@link #makeMove(int)} does.
+     */
+    void setGameState(int castling, int enPassant, int halfmoves, int fullmove) {
+        if (enPassant != GameState.NO_SQUARE && !canCaptureEnPassant(enPassant, teamTurn)) {
+            enPassant = GameState.NO_SQUARE;
+        }
+        state = GameState.of(castling, enPassant, halfmoves, fullmove);
+    }
+
+    /**
+     * Appends every valid move for a team to a caller-owned list, without
+     * building ChessMoves or touching the cache {@link #allValidMoves} uses
+     *
+     * @param moves list to append packed moves (see {@link Moves}) to
+     * @return how many moves were added
+     */
+    public int validMoves(TeamColor teamColor, MoveList moves) {
+        int startSize = moves.size();
+        findChecksAndPins(teamColor);
+        long pieces = board.teamPieces(teamColor);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            addValidMoves(square, board.getPiece(square), -1L, moves);
+        }
+        return moves.size() - startSize;
+    }
+
+    /**
+     * Appends only the valid captures and promotions for a team, the moves
+     * that change the material on the board, for searches that only look at
+     * those
+     *
+     * @param moves list to append packed moves (see {@link Moves}) to
+     * @return how many moves were added
+     */
+    public int captureMoves(TeamColor teamColor, MoveList moves) {
+        int startSize = moves.size();
+        findChecksAndPins(teamColor);
+        long enemies = board.teamPieces(opponent(teamColor));
+        long pieces = board.teamPieces(teamColor);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            ChessPiece piece = board.getPiece(square);
+            long targets = piece.getPieceType() == ChessPiece.PieceType.PAWN ? enemies | PROMOTION_ROWS : enemies;
+            addValidMoves(square, piece, targets, moves);
+        }
+        return moves.size() - startSize;
+    }
+
+    /**
+     * Gets every valid move for a team, generating them only if the position
+     * (or the team asked about) has changed since the last call
+     */
+    private MoveList cachedValidMoves(TeamColor teamColor) {
+        if (!isCached(teamColor)) {
+            cachedMoves.clear();
+            validMoves(teamColor, cachedMoves);
+            cachedTeam = teamColor;
+            cachedKey = zobristKey();
+            cachedChessMoves = null;
+        }
+        return cachedMoves;
+    }
+
+    /**
+     * @return true if the cached moves are for this team in the current position
+     */
+    private boolean isCached(TeamColor teamColor) {
+        return cachedTeam == teamColor && cachedKey == zobristKey();
+    }
+
+    /**
+     * Works out, once per position, which enemy pieces give check and which of
+     * the team's pieces are pinned to its king, so moves can be judged with
+     * bit masks instead of being played out
+     */
+    private void findChecksAndPins(TeamColor teamColor) {
+        checkers = 0;
+        checkMask = -1L;
+        pinned = 0;
+        kingSquare = board.kingSquare(teamColor);
+        if (kingSquare < 0) {
+            // Without a king nothing can be illegal
+            return;
+        }
+        TeamColor enemy = opponent(teamColor);
+        long occupied = board.occupied();
+
+        // The attack map says whether there is a check; only then look for the checkers
+        checkers = board.isSquareAttacked(kingSquare, enemy) ? board.attackersOf(kingSquare, enemy, occupied) : 0;
+        if (Long.bitCount(checkers) == 1) {
+            // Capture the checker, or step in front of it if it slides
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | MagicAttacks.between(kingSquare, checker);
+        }
+
+        // Enemy sliders that would attack the king on an empty board
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+        long snipers = (MagicAttacks.bishop(kingSquare, 0) & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens))
+                | (MagicAttacks.rook(kingSquare, 0) & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens));
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long ray = MagicAttacks.between(kingSquare, sniper);
+            long blockers = ray & occupied;
+            // Exactly one piece in the way, and it is ours: it is pinned
+            if (Long.bitCount(blockers) == 1 && (blockers & board.teamPieces(teamColor)) != 0) {
+                pinned |= blockers;
+                pinRays[Long.numberOfTrailingZeros(blockers)] = ray | (1L << sniper);
+            }
+        }
+    }
+
+    /**
+     * Appends the moves of the piece on a square that don't leave its own king
+     * in check. {@link #findChecksAndPins} must have been run for the piece's team.
+     *
+     * @param targets squares the moves may end on (en passant aside), -1 for any
+     */
+    private void addValidMoves(int square, ChessPiece piece, long targets, MoveList moves) {
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && piece.getTeamColor() == teamTurn
+                && GameState.enPassant(state) != GameState.NO_SQUARE) {
+            addEnPassantMove(square, piece.getTeamColor(), moves);
+        }
+        if (kingSquare < 0) {
+            int startSize = moves.size();
+            piece.pieceMoves(board, square, moves);
+            if (targets != -1L) {
+                keepMovesTo(targets, startSize, moves);
+            }
+            return;
+        }
+        if (square == kingSquare) {
+            addKingMoves(square, piece, targets, moves);
+            return;
+        }
+        // In double check only the king can move
+        if (Long.bitCount(checkers) > 1) {
+            return;
+        }
+
+        long allowed = checkMask & targets;
+        if ((pinned & (1L << square)) != 0) {
+            allowed &= pinRays[square];
+        }
+        int startSize = moves.size();
+        piece.pieceMoves(board, square, moves);
+        if (allowed != -1L) {
+            keepMovesTo(allowed, startSize, moves);
+        }
+    }
+
+    /**
+     * Appends the king's moves onto target squares the enemy doesn't attack
+     */
+    private void addKingMoves(int square, ChessPiece king, long targets, MoveList moves) {
+        TeamColor enemy = opponent(king.getTeamColor());
+        int startSize = moves.size();
+        king.pieceMoves(board, square, moves);
+        keepMovesTo(~board.attackedSquares(enemy) & targets, startSize, moves);
+        if (checkers == 0) {
+            if (targets != -1L) {
+                // Castling never captures
+                return;
+            }
+            addCastlingMoves(square, king.getTeamColor(), moves);
+            return;
+        }
+        // A slider checking the king also attacks the squares behind it, which the
+        // attack map can't see while the king is in the way
+        long withoutKing = board.occupied() & ~(1L << square);
+        int kept = startSize;
+        for (int i = startSize; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (board.attackersOf(Moves.to(move), enemy, withoutKing) == 0) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Appends the castling moves of a king that isn't in check: the king and
+     * rook must not have moved, the squares between them must be empty, and
+     * the king must not pass through or land on an attacked square
+     */
+    private void addCastlingMoves(int square, TeamColor color, MoveList moves) {
+        int rights = GameState.castling(state, color);
+        int home = color == TeamColor.WHITE ? WHITE_KING_HOME : BLACK_KING_HOME;
+        if (rights == 0 || square != home) {
+            return;
+        }
+        TeamColor enemy = opponent(color);
+        long occupied = board.occupied();
+        long rooks = board.pieces(color, ChessPiece.PieceType.ROOK);
+        long attacked = board.attackedSquares(enemy);
+        if ((rights & 1) != 0 && (occupied & (KINGSIDE_GAP << home)) == 0 && (rooks & (1L << (home + 3))) != 0
+                && (attacked & (KINGSIDE_PATH << home)) == 0) {
+            moves.add(Moves.encode(home, home + 2, null) | Moves.CASTLE);
+        }
+        if ((rights & 2) != 0 && (occupied & (QUEENSIDE_GAP << (home - 4))) == 0 && (rooks & (1L << (home - 4))) != 0
+                && (attacked & (QUEENSIDE_PATH << (home - 4))) == 0) {
+            moves.add(Moves.encode(home, home - 2, null) | Moves.CASTLE);
+        }
+    }
+
+    /**
+     * Appends the en passant capture of the pawn on a square, if it has one
+     * and it doesn't leave its king in check. Only the team to move can have
+     * one, and only while the pawn that passed is still there to take. Taking en passant empties two
+     * squares on one row, which can uncover a rook the pin masks don't know
+     * about, so the king is tested against the board as it would be after.
+     */
+    private void addEnPassantMove(int square, TeamColor color, MoveList moves) {
+        int target = GameState.enPassant(state);
+        if ((Bitboards.pawn(square, color) & (1L << target)) == 0) {
+            return;
+        }
+        long victim = 1L << enPassantVictim(square, target);
+        if ((board.pieces(opponent(color), ChessPiece.PieceType.PAWN) & victim) == 0) {
+            return;
+        }
+        if (kingSquare >= 0) {
+            long after = (board.occupied() & ~(1L << square) & ~victim) | (1L << target);
+            if ((board.attackersOf(kingSquare, opponent(color), after) & ~victim) != 0) {
+                return;
+            }
+        }
+        moves.add(Moves.encode(square, target, null) | Moves.EN_PASSANT | Moves.CAPTURE);
+    }
+
+    /**
+     * Drops the moves from an index onward that don't end on one of the allowed
+     * squares, compacting the list as it goes
+     */
+    private static void keepMovesTo(long allowed, int startSize, MoveList moves) {
+        int kept = startSize;
+        for (int i = startSize; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if ((allowed & (1L << Moves.to(move))) != 0) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ChessGame chessGame = (ChessGame) o;
+        return zobristKey() == chessGame.zobristKey()
+                && teamTurn == chessGame.teamTurn && Objects.equals(board, chessGame.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey());
     }
 }
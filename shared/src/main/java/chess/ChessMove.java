@@ -9,12 +9,36 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessMove {
+    // Shared instances indexed by packed move (see Moves), without flags
+    private static final ChessMove[] MOVES = new ChessMove[Moves.IDENTITY_MASK + 1];
+    // Pieces a pawn may be promoted to
+    private static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT
+    };
+
+    static {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                intern(from, to, null);
+                // Pawns promote by stepping from the second-to-last row onto the last
+                boolean whitePromotion = Bitboards.row(from) == 7 && Bitboards.row(to) == 8;
+                boolean blackPromotion = Bitboards.row(from) == 2 && Bitboards.row(to) == 1;
+                if ((whitePromotion || blackPromotion) && Math.abs(Bitboards.column(from) - Bitboards.column(to)) <= 1) {
+                    for (ChessPiece.PieceType promotion : PROMOTIONS) {
+                        intern(from, to, promotion);
+                    }
+                }
+            }
+        }
+    }
+
     // Position at the beginning of the move
-    ChessPosition startPosition;
+    final ChessPosition startPosition;
     // Position at the end of the move
-    ChessPosition endPosition;
+    final ChessPosition endPosition;
     // If the piece is a pawn that will be promoted, the piece type it will become
-    ChessPiece.PieceType promotionPiece;
+    final ChessPiece.PieceType promotionPiece;
     public ChessMove(ChessPosition startPosition, ChessPosition endPosition,
                      ChessPiece.PieceType promotionPiece) {
         this.startPosition = startPosition;
@@ -22,6 +46,28 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * Gets the shared instance for a packed move, so move generation doesn't
+     * allocate a new move for every target square
+     *
+     * @param move a move packed by {@link Moves}; flags are ignored
+     * @return the shared move
+     */
+    public static ChessMove of(int move) {
+        ChessMove shared = MOVES[move & Moves.IDENTITY_MASK];
+        if (shared != null) {
+            return shared;
+        }
+        // Only moves no piece can make are missing from the table
+        return new ChessMove(ChessPosition.of(Moves.from(move)), ChessPosition.of(Moves.to(move)),
+                Moves.promotion(move));
+    }
+
+    private static void intern(int from, int to, ChessPiece.PieceType promotion) {
+        MOVES[Moves.encode(from, to, promotion)] =
+                new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotion);
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -48,6 +94,9 @@ public class ChessMove {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -1,10 +1,6 @@
 package chess;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Objects;
-
-import static java.lang.Math.abs;
 
 /**
  * Represents a single chess piece
@@ -13,15 +9,55 @@ import static java.lang.Math.abs;
  * signature of the existing methods.
  */
 public class ChessPiece {
-    ChessGame.TeamColor pieceColor;
-    PieceType type;
+    // The shared piece for each code (see code), with null standing for an empty square
+    private static final ChessPiece[] BY_CODE = new ChessPiece[13];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                BY_CODE[ChessBoard.pieceIndex(color, type) + 1] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    final ChessGame.TeamColor pieceColor;
+    final PieceType type;
     public ChessPiece(ChessGame.TeamColor pieceColor, PieceType type) {
         this.type = type;
         this.pieceColor = pieceColor;
     }
 
+    /**
+     * Gets the shared, immutable piece of a color and type. There are only
+     * twelve of them, so boards never need to allocate pieces of their own.
+     *
+     * @return the piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return BY_CODE[ChessBoard.pieceIndex(pieceColor, type) + 1];
+    }
+
+    /**
+     * @return a small number standing for a piece: its {@link ChessBoard#pieceIndex}
+     * plus one, or 0 for null
+     */
+    static byte code(ChessPiece piece) {
+        return piece == null ? 0 : (byte) (ChessBoard.pieceIndex(piece.pieceColor, piece.type) + 1);
+    }
+
+    /**
+     * @return the shared piece a code stands for, or null for 0
+     */
+    static ChessPiece fromCode(int code) {
+        return BY_CODE[code];
+    }
+
     @Override
     public boolean equals(Object o) {
+        // Shared pieces make this the usual case
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -31,7 +67,7 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        return ChessBoard.pieceIndex(pieceColor, type);
     }
 
     /**
@@ -68,203 +104,85 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        MoveList moves = new MoveList(32);
+        pieceMoves(board, myPosition, moves);
+        return moves.toChessMoves();
+    }
 
-        // Stores valid moves
-        ArrayList<ChessMove> moves = new ArrayList<ChessMove>();
-
-        // Saves row and column of starting position for easier access
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
+    /**
+     * Calculates all the positions a chess piece can move to, appending them to
+     * a caller-owned list instead of allocating a new collection
+     * Does not take into account moves that are illegal due to leaving the king in
+     * danger
+     *
+     * @param moves list to append packed moves (see {@link Moves}) to
+     * @return how many moves were added
+     */
+    public int pieceMoves(ChessBoard board, ChessPosition myPosition, MoveList moves) {
+        return pieceMoves(board, Bitboards.square(myPosition), moves);
+    }
 
-        // Bishop
-        if (type == PieceType.BISHOP) {
-            // Row and column of potential moves
-            int temp_row;
-            int temp_col;
-            // For x = -1 and x = 1
-            for (int x = -1; x < 2; x += 2) {
-                // For y = -1 and y = 1
-                for (int y = -1; y < 2; y += 2) {
-                    temp_row = row + x;
-                    temp_col = col + y;
-                    // Avoid going off the edge
-                    while (temp_row > 0 && temp_row < 9 && temp_col > 0 && temp_col < 9) {
-                        // If there is a piece in the way:
-                        if (board.getPiece(new ChessPosition(temp_row, temp_col)) != null) {
-                            // If the piece is an enemy, allow the move
-                            if (board.getPiece(new ChessPosition(temp_row, temp_col)).getTeamColor() != board.getPiece(myPosition).getTeamColor()) {
-                                moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                            }
-                            // Regardless, stop the loop (path is blocked)
-                            break;
-                        }
-                        // Otherwise, add the move
-                        else {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                            if (board.getPiece(new ChessPosition(temp_row, temp_col)) != null) break;
-                            temp_row += x;
-                            temp_col += y;
-                        }
-                    }
-                }
-            }
+    int pieceMoves(ChessBoard board, int square, MoveList moves) {
+        int startSize = moves.size();
+        if (type == PieceType.PAWN) {
+            addPawnMoves(board, square, moves);
+            return moves.size() - startSize;
         }
-        // King
-        else if (type == PieceType.KING) {
-            // For x = -1, 0, 1
-            for (int x = -1; x < 2; x++) {
-                // For y = -1, 0, 1
-                for (int y = -1; y < 2; y++) {
-                    int temp_row = row + x;
-                    int temp_col = col + y;
-                    // Avoid going off the edge
-                    if (temp_row > 0 && temp_row < 9 && temp_col > 0 && temp_col < 9) {
-                        // If space is empty or occupied by enemy
-                        if ((board.getPiece(new ChessPosition(temp_row, temp_col)) == null) || (board.getPiece(new ChessPosition(temp_row, temp_col)).getTeamColor() != board.getPiece(myPosition).getTeamColor()))  {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                        }
-                    }
 
-                }
-            }
-        }
-        // Knight
-        else if (type == PieceType.KNIGHT) {
-            // For x == -2,-1,0,1,2
-            for (int x = -2; x < 3; x++) {
-                // For y == -2,-1,0,1,2
-                for (int y = -2; y < 3; y++) {
-                    // If neither number is 0 and the difference is 1, then we have an L shape
-                    if (x != 0 && y != 0 && abs(abs(x)-abs(y)) == 1) {
-                        int temp_row = row + x;
-                        int temp_col = col + y;
-                        // If not out of bounds
-                        if (temp_row > 0 && temp_row < 9 && temp_col > 0 && temp_col < 9) {
-                            // If space is empty or occupied by enemy
-                            if ((board.getPiece(new ChessPosition(temp_row, temp_col)) == null) || (board.getPiece(new ChessPosition(temp_row, temp_col)).getTeamColor() != board.getPiece(myPosition).getTeamColor()))  {
-                                moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                            }
-                        }
-                    }
-                }
-            }
+        long occupied = board.occupied();
+        long enemies = board.teamPieces(ChessGame.opponent(pieceColor));
+        // Squares this piece may land on (empty or holding an enemy)
+        long available = ~board.teamPieces(pieceColor);
+        // Every other piece moves to the squares it attacks (sliders look theirs up in tables)
+        long targets = Bitboards.attacks(type, pieceColor, square, occupied) & available;
+
+        // Turn each target square into a move
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (enemies & (1L << target)) != 0 ? Moves.CAPTURE : 0;
+            moves.add(Moves.encode(square, target, null) | flags);
         }
-        // Pawn
-        else if (type == PieceType.PAWN) {
-            // Movement direction is down for black, up for white
-            int direction;
-            if (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.BLACK) {
-                direction = -1;
-            } else {
-                direction = 1;
-            }
-            // Whether or not the pawn will earn a promotion by moving forward
-            boolean earnsPromotion = (((direction == -1 && row == 2) || (direction == 1 && row == 7)));
-            // If the pawn is on the second row of its side, assume first move
-            boolean firstMove = ((direction == -1 && row == 7) || (direction == 1 && row == 2));
-            // Normal forward movement
-            if ((board.getPiece(new ChessPosition(row + direction, col)) == null))  {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row + direction, col), null));
-                // If the forward space was available AND it is the first move, allow double movement
-                if (firstMove && (board.getPiece(new ChessPosition(row + (2 * direction), col)) == null))  {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(row + (2 * direction), col), null));
-                }
-            }
-            // Diagonal left movement
-            if (col > 1 && (board.getPiece(new ChessPosition(row + direction, col - 1)) != null) && (board.getPiece(new ChessPosition(row + direction, col - 1)).getTeamColor() != board.getPiece(myPosition).getTeamColor()))  {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row + direction, col - 1), null));
-            }
-            // Diagonal right movement
-            if (col < 8 && (board.getPiece(new ChessPosition(row + direction, col + 1)) != null) && (board.getPiece(new ChessPosition(row + direction, col + 1)).getTeamColor() != board.getPiece(myPosition).getTeamColor()))  {
-                moves.add(new ChessMove(myPosition, new ChessPosition(row + direction, col + 1), null));
-            }
-            // If the pawn will be promoted, replace each pawn move with four corresponding moves of different pieces
-            if (earnsPromotion) {
-                // Temporary array to store new moves
-                ArrayList<ChessMove> tempMoves = new ArrayList<ChessMove>();
-                for (ChessMove move : moves) {
-                    tempMoves.add(new ChessMove(myPosition, move.getEndPosition(), PieceType.QUEEN));
-                    tempMoves.add(new ChessMove(myPosition, move.getEndPosition(), PieceType.BISHOP));
-                    tempMoves.add(new ChessMove(myPosition, move.getEndPosition(), PieceType.ROOK));
-                    tempMoves.add(new ChessMove(myPosition, move.getEndPosition(), PieceType.KNIGHT));
-                }
-                // Replace pawn moves with other piece moves
-                moves = tempMoves;
-            }
-        }
-        // Queen
-        else if (type == PieceType.QUEEN) {
-            // Works the same as bishop, except allows x and y to be 0
-            int temp_row;
-            int temp_col;
-            // For x = -1, 0, 1
-            for (int x = -1; x < 2; x += 1) {
-                // For x = -1, 0, 1
-                for (int y = -1; y < 2; y += 1) {
-                    temp_row = row + x;
-                    temp_col = col + y;
-                    // Avoid going off the edge
-                    while (temp_row > 0 && temp_row < 9 && temp_col > 0 && temp_col < 9) {
-                        // If there is a piece in the way:
-                        if (board.getPiece(new ChessPosition(temp_row, temp_col)) != null) {
-                            // If the piece is an enemy, allow the move
-                            if (board.getPiece(new ChessPosition(temp_row, temp_col)).getTeamColor() != board.getPiece(myPosition).getTeamColor()) {
-                                moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                            }
-                            // Regardless, stop the loop (path is blocked)
-                            break;
-                        }
-                        // Otherwise, add the move
-                        else {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                            System.out.println(temp_row+", "+temp_col);
-                            if (board.getPiece(new ChessPosition(temp_row, temp_col)) != null) break;
-                            temp_row += x;
-                            temp_col += y;
-                        }
-                    }
-                }
-            }
-        }
-        // Rook
-        else if (type == PieceType.ROOK) {
-            int temp_row;
-            int temp_col;
-            int[] xList = {-1,1,0,0};
-            int[] yList = {0,0,-1,1};
-            // Loops through pairs:
-            // (-1,0), (1,0), (0,-1), (0,1)
-            for (int i = 0; i < 4; i++) {
-                int x = xList[i];
-                int y = yList[i];
-                temp_row = row + x;
-                temp_col = col + y;
-                // Avoid going off the edge
-                while (temp_row > 0 && temp_row < 9 && temp_col > 0 && temp_col < 9) {
-                    // If there is a piece in the way:
-                    if (board.getPiece(new ChessPosition(temp_row, temp_col)) != null) {
-                        // If the piece is an enemy, allow the move
-                        if (board.getPiece(new ChessPosition(temp_row, temp_col)).getTeamColor() != board.getPiece(myPosition).getTeamColor()) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                        }
-                        // Regardless, stop the loop (path is blocked)
-                        break;
-                    }
-                    // Otherwise, add the move
-                    else {
-                        moves.add(new ChessMove(myPosition, new ChessPosition(temp_row, temp_col), null));
-                        System.out.println(temp_row+", "+temp_col);
-                        if (board.getPiece(new ChessPosition(temp_row, temp_col)) != null) break;
-                        temp_row += x;
-                        temp_col += y;
-                    }
-                }
+        return moves.size() - startSize;
+    }
+
+    /**
+     * Adds the moves a pawn can make: one step forward onto an empty square,
+     * two steps from its starting row if both are empty, and diagonally forward
+     * onto an enemy. Pawns reaching the last row are promoted, so each of those
+     * becomes four moves.
+     */
+    private void addPawnMoves(ChessBoard board, int square, MoveList moves) {
+        long pawn = 1L << square;
+        long empty = ~board.occupied();
+        // Movement direction is down for black, up for white
+        int direction = pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1;
+        long startRow = pieceColor == ChessGame.TeamColor.WHITE ? Bitboards.ROW_2 : Bitboards.ROW_7;
+
+        // Normal forward movement
+        long single = Bitboards.shift(pawn, direction, 0) & empty;
+        // If the forward space was available AND it is the first move, allow double movement
+        long doubled = Bitboards.shift(single & Bitboards.shift(startRow, direction, 0), direction, 0) & empty;
+        // Diagonal captures
+        long captures = Bitboards.pawn(square, pieceColor) & board.teamPieces(ChessGame.opponent(pieceColor));
+
+        addPawnMoves(square, single, 0, moves);
+        addPawnMoves(square, doubled, Moves.DOUBLE_PUSH, moves);
+        addPawnMoves(square, captures, Moves.CAPTURE, moves);
+    }
 
+    private static void addPawnMoves(int square, long targets, int flags, MoveList moves) {
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (((1L << target) & (Bitboards.ROW_1 | Bitboards.ROW_8)) != 0) {
+                moves.add(Moves.encode(square, target, PieceType.QUEEN) | flags);
+                moves.add(Moves.encode(square, target, PieceType.BISHOP) | flags);
+                moves.add(Moves.encode(square, target, PieceType.ROOK) | flags);
+                moves.add(Moves.encode(square, target, PieceType.KNIGHT) | flags);
+            } else {
+                moves.add(Moves.encode(square, target, null) | flags);
             }
         }
-
-
-
-        return moves;
     }
 }
@@ -0,0 +1,122 @@
+package chess;
+
+import java.util.Map;
+
+/**
+ * Reads positions written in Forsyth-Edwards Notation (FEN), the usual way
+ * chess tools write down a position
+ * <p>
+ * The castling, en passant and move clock fields may be left off, in which
+ * case castling rights come from where the kings and rooks stand and the
+ * clocks start over.
+ */
+public final class Fen {
+    // The standard starting position
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final Map<Character, ChessPiece.PieceType> CHAR_TO_TYPE = Map.of(
+            'p', ChessPiece.PieceType.PAWN,
+            'n', ChessPiece.PieceType.KNIGHT,
+            'b', ChessPiece.PieceType.BISHOP,
+            'r', ChessPiece.PieceType.ROOK,
+            'q', ChessPiece.PieceType.QUEEN,
+            'k', ChessPiece.PieceType.KING);
+
+    private Fen() {
+    }
+
+    /**
+     * Builds a game from a FEN string
+     *
+     * @param fen the position, e.g. {@link #START}
+     * @return a game in that position
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static ChessGame load(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("FEN needs at least a placement and a side to move: " + fen);
+        }
+
+        ChessBoard board = new ChessBoard();
+        // FEN lists row 8 first, each row from column 1 to 8
+        String[] rows = fields[0].split("/", -1);
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("FEN placement needs 8 rows: " + fields[0]);
+        }
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : rows[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                ChessPiece.PieceType type = CHAR_TO_TYPE.get(Character.toLowerCase(c));
+                if (type == null || col > 8) {
+                    throw new IllegalArgumentException("Bad FEN placement: " + fields[0]);
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c)
+                        ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.addPiece(ChessPosition.of(row, col), ChessPiece.of(color, type));
+                col++;
+            }
+            if (col != 9) {
+                throw new IllegalArgumentException("FEN row " + row + " doesn't cover 8 columns: " + fields[0]);
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        switch (fields[1]) {
+            case "w" -> game.setTeamTurn(ChessGame.TeamColor.WHITE);
+            case "b" -> game.setTeamTurn(ChessGame.TeamColor.BLACK);
+            default -> throw new IllegalArgumentException("Bad FEN side to move: " + fields[1]);
+        }
+        if (fields.length > 2) {
+            long state = game.gameState();
+            int castling = fields[2].equals("-") ? 0 : castlingRights(fields[2]);
+            int enPassant = fields.length > 3 ? square(fields[3]) : GameState.NO_SQUARE;
+            int halfmoves = fields.length > 4 ? number(fields[4]) : GameState.halfmoveClock(state);
+            int fullmove = fields.length > 5 ? number(fields[5]) : GameState.fullmoveNumber(state);
+            game.setGameState(castling, enPassant, halfmoves, fullmove);
+        }
+        return game;
+    }
+
+    private static int castlingRights(String field) {
+        int rights = 0;
+        for (char c : field.toCharArray()) {
+            rights |= switch (c) {
+                case 'K' -> GameState.WHITE_KINGSIDE;
+                case 'Q' -> GameState.WHITE_QUEENSIDE;
+                case 'k' -> GameState.BLACK_KINGSIDE;
+                case 'q' -> GameState.BLACK_QUEENSIDE;
+                default -> throw new IllegalArgumentException("Bad FEN castling rights: " + field);
+            };
+        }
+        return rights;
+    }
+
+    /**
+     * @return the square index of a square name like "e3", or {@link GameState#NO_SQUARE} for "-"
+     */
+    private static int square(String field) {
+        if (field.equals("-")) {
+            return GameState.NO_SQUARE;
+        }
+        if (field.length() != 2 || field.charAt(0) < 'a' || field.charAt(0) > 'h'
+                || field.charAt(1) < '1' || field.charAt(1) > '8') {
+            throw new IllegalArgumentException("Bad FEN en passant square: " + field);
+        }
+        return Moves.square(field.charAt(1) - '0', field.charAt(0) - 'a' + 1);
+    }
+
+    private static int number(String field) {
+        try {
+            return Integer.parseInt(field);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad FEN move clock: " + field, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package chess;
+
+/**
+ * Turns moves and search statistics into text for tools and logs
+ */
+public final class Formatting {
+
+    private Formatting() {
+    }
+
+    /**
+     * @return a move in coordinate notation, e.g. "e2e4" or "a7a8q"
+     */
+    public static String moveText(ChessMove move) {
+        String text = squareText(move.getStartPosition()) + squareText(move.getEndPosition());
+        if (move.getPromotionPiece() != null) {
+            text += switch (move.getPromotionPiece()) {
+                case QUEEN -> "q";
+                case ROOK -> "r";
+                case BISHOP -> "b";
+                default -> "n";
+            };
+        }
+        return text;
+    }
+
+    /**
+     * @return nodes per second for a count and a time in nanoseconds
+     */
+    public static long nodesPerSecond(long nodes, long nanos) {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+
+    private static String squareText(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+}
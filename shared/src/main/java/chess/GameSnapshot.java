@@ -0,0 +1,83 @@
+package chess;
+
+/**
+ * A read-only copy of a game's position, from {@link ChessGame#snapshot()}
+ * <p>
+ * Nothing in a snapshot changes after it is made and every field is final, so
+ * it can be shared between threads without locking. Use {@link #toGame()} to
+ * get a game that can be played on from this position.
+ */
+public final class GameSnapshot {
+    // A private copy no one else can reach, so it is never modified
+    private final ChessBoard board;
+    private final ChessGame.TeamColor teamTurn;
+    private final long state;
+    private final long zobristKey;
+
+    GameSnapshot(ChessBoard board, ChessGame.TeamColor teamTurn, long state, long zobristKey) {
+        this.board = board;
+        this.teamTurn = teamTurn;
+        this.state = state;
+        this.zobristKey = zobristKey;
+    }
+
+    /**
+     * @return the piece at a position, or null if the square is empty
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return board.getPiece(position);
+    }
+
+    /**
+     * @return a copy of the board, which the caller may change freely
+     */
+    public ChessBoard getBoard() {
+        return board.copy();
+    }
+
+    /**
+     * @return which team's turn it is
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return the castling rights, en passant square and move clocks, packed
+     * by {@link GameState}
+     */
+    public long gameState() {
+        return state;
+    }
+
+    /**
+     * @return the position's key, as {@link ChessGame#zobristKey()} gave it
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Starts a new game from this position. Its moves can't be taken back past
+     * this position, and repetitions are only counted from here on.
+     *
+     * @return a game the caller owns
+     */
+    public ChessGame toGame() {
+        return new ChessGame(board.copy(), teamTurn, state);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        GameSnapshot that = (GameSnapshot) o;
+        return zobristKey == that.zobristKey && teamTurn == that.teamTurn && board.equals(that.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
+    }
+}
@@ -0,0 +1,86 @@
+package chess;
+
+/**
+ * Packs the parts of a game's state that aren't on the board into a single
+ * {@code long}, so making a move can save all of it in one array slot and
+ * taking the move back restores it with one assignment
+ * <p>
+ * Layout, from the lowest bit up:
+ * <ul>
+ *     <li>bits 0-3: castling rights ({@link #WHITE_KINGSIDE}, {@link #WHITE_QUEENSIDE},
+ *     {@link #BLACK_KINGSIDE}, {@link #BLACK_QUEENSIDE})</li>
+ *     <li>bits 4-10: the square a pawn can capture en passant onto, or {@link #NO_SQUARE}</li>
+ *     <li>bits 11-20: halfmove clock, the moves since the last capture or pawn move</li>
+ *     <li>bits 21 and up: fullmove number, starting at 1 and counting up after black moves</li>
+ * </ul>
+ */
+public final class GameState {
+    // Castling rights, one bit each
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 1 << 1;
+    public static final int BLACK_KINGSIDE = 1 << 2;
+    public static final int BLACK_QUEENSIDE = 1 << 3;
+    // Stands for "no en passant square"
+    public static final int NO_SQUARE = 64;
+
+    private static final int EN_PASSANT_SHIFT = 4;
+    private static final int HALFMOVE_SHIFT = 11;
+    private static final int FULLMOVE_SHIFT = 21;
+    // The largest halfmove clock that fits; it stops counting here
+    private static final int MAX_HALFMOVES = (1 << (FULLMOVE_SHIFT - HALFMOVE_SHIFT)) - 1;
+
+    private GameState() {
+    }
+
+    /**
+     * Packs a game state
+     *
+     * @param castling  castling rights, any combination of the rights constants
+     * @param enPassant square index a pawn can capture en passant onto, or {@link #NO_SQUARE}
+     * @param halfmoves moves since the last capture or pawn move
+     * @param fullmove  fullmove number, starting at 1
+     * @return the packed state
+     */
+    public static long of(int castling, int enPassant, int halfmoves, int fullmove) {
+        return castling
+                | ((long) enPassant << EN_PASSANT_SHIFT)
+                | ((long) Math.min(halfmoves, MAX_HALFMOVES) << HALFMOVE_SHIFT)
+                | ((long) fullmove << FULLMOVE_SHIFT);
+    }
+
+    /**
+     * @return the castling rights of a packed state
+     */
+    public static int castling(long state) {
+        return (int) state & 15;
+    }
+
+    /**
+     * @return the castling rights of one team, with kingside in bit 0 and
+     * queenside in bit 1
+     */
+    static int castling(long state, ChessGame.TeamColor color) {
+        return castling(state) >>> (color.ordinal() * 2) & 3;
+    }
+
+    /**
+     * @return the square a pawn can capture en passant onto, or {@link #NO_SQUARE}
+     */
+    public static int enPassant(long state) {
+        return (int) (state >>> EN_PASSANT_SHIFT) & 127;
+    }
+
+    /**
+     * @return moves since the last capture or pawn move
+     */
+    public static int halfmoveClock(long state) {
+        return (int) (state >>> HALFMOVE_SHIFT) & MAX_HALFMOVES;
+    }
+
+    /**
+     * @return the fullmove number
+     */
+    public static int fullmoveNumber(long state) {
+        return (int) (state >>> FULLMOVE_SHIFT);
+    }
+}
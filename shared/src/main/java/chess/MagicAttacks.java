@@ -0,0 +1,174 @@
+package chess;
+
+/**
+ * Precomputed attack tables for sliding pieces (bishops, rooks and queens)
+ * <p>
+ * Uses "magic bitboards": the pieces that could block a slider on a given
+ * square are masked out of the board's occupancy, multiplied by a per-square
+ * magic number and shifted down, which gives a collision-free index into a
+ * table of every possible attack set for that square. The tables are built
+ * once when the class loads and shared by every board.
+ */
+final class MagicAttacks {
+    // Magic multipliers, found offline by random search, indexed by square
+    private static final long[] ROOK_MAGICS = {
+            0x0280008420400018L, 0x0280200080400010L, 0x4100081420010040L, 0x8200104008200600L,
+            0x1080040002080081L, 0x2880010200800400L, 0x8280010000800200L, 0x5980002100004080L,
+            0x2008800C81400121L, 0x8000808040002000L, 0x0084802000841000L, 0x0012001046000820L,
+            0x0023002431000800L, 0x0044010860040050L, 0x0085000100040200L, 0x001C800041001080L,
+            0x0120008080004000L, 0x2C00808020004000L, 0x0800820012260140L, 0x1010010010090021L,
+            0x4202020008041020L, 0xA800808004000200L, 0x0000040038011210L, 0x2001020004008041L,
+            0x0001400480048122L, 0x0000200080400080L, 0x0140124500200300L, 0x2410004040080401L,
+            0xC920040080800800L, 0x00C0040080800200L, 0x0405002100520004L, 0x0002010600048044L,
+            0x0010E14000800882L, 0x0010002000400058L, 0x02168A1000802000L, 0x1301001003002048L,
+            0x0808000A80800400L, 0x0082000400808002L, 0x0405280214005001L, 0x0302008402000041L,
+            0x0000800040008020L, 0x0480500020004000L, 0x1409001020010043L, 0x0000104200220008L,
+            0x52020120040A0010L, 0x0200020004008080L, 0x0408020001008080L, 0x02802A81114A000CL,
+            0x08512B0080024100L, 0x2040910020400100L, 0x0203806001D00480L, 0x020900E0D0000900L,
+            0x0028080080040080L, 0x8000020080040080L, 0x1040100108020400L, 0x80D1210400844600L,
+            0x0047012013800445L, 0x0020802040001101L, 0x0020001100244009L, 0x80004500A1100009L,
+            0x0402002010840882L, 0xE052004804013082L, 0x00020C8810021B0CL, 0x1000030144241082L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x000C9004CA040040L, 0x1008024082020028L, 0x0010010204240401L, 0x4014240080808584L,
+            0x0011104000040054L, 0x058C2208C0011000L, 0x1080845008040600L, 0x0000202210042009L,
+            0xC0C01320020C8200L, 0x0201024801010201L, 0x0004041800851908L, 0x4000040408900000L,
+            0x0010011040400000L, 0x3271011002112A88L, 0x2510341104422004L, 0x0000010042422054L,
+            0x04222004200C0510L, 0x0224800234180210L, 0x4042020404001200L, 0x0008048082004000L,
+            0x0104005610220000L, 0x0800808440504000L, 0x02060144020A1260L, 0x0001011080484204L,
+            0x5184464020200400L, 0x1004200502028404L, 0x4844900008002122L, 0x4020080001004008L,
+            0x1000840088802000L, 0x0010008101105004L, 0x0200810000880800L, 0x1B25090832004100L,
+            0x4202A02000042880L, 0x0010D42051100200L, 0x4000108209100400L, 0x2100400820420200L,
+            0x4008022400084100L, 0x2022308200410800L, 0x409682A200440600L, 0x010C010A40202404L,
+            0x1021440220104013L, 0x01088808020148C0L, 0x400050C028141000L, 0x0460004208020080L,
+            0x00902010A4010080L, 0x6001101000808042L, 0x1002100441001098L, 0x882400808108020CL,
+            0x40010C0121080499L, 0xE006808808420000L, 0x8000302108088402L, 0x0000280084040890L,
+            0x4000110810340204L, 0xC406900250010404L, 0x1040C20882008000L, 0x4183080800808800L,
+            0x200903080A014400L, 0x8000020080841084L, 0x0402220100824102L, 0x010000010820A808L,
+            0x0002240808102410L, 0x020001C090960480L, 0xA00060A001820086L, 0x0122100906028A08L
+    };
+
+    // Squares whose occupancy can change each square's attacks
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] BISHOP_MASKS = new long[64];
+    // How far to shift the product down for each square
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    // Where each square's slice of the shared table starts
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    // Attack sets for every square and blocker arrangement
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+    // Squares strictly between two squares on a shared row, column or diagonal,
+    // indexed by from * 64 + to
+    private static final long[] BETWEEN = new long[64 * 64];
+
+    static {
+        ROOK_TABLE = buildTable(true, ROOK_MAGICS, ROOK_MASKS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_TABLE = buildTable(false, BISHOP_MAGICS, BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                long fromBit = 1L << from;
+                long toBit = 1L << to;
+                // Each square's rays, stopped by the other square, overlap only in between
+                if ((rook(from, 0) & toBit) != 0) {
+                    BETWEEN[from * 64 + to] = rook(from, toBit) & rook(to, fromBit);
+                } else if ((bishop(from, 0) & toBit) != 0) {
+                    BETWEEN[from * 64 + to] = bishop(from, toBit) & bishop(to, fromBit);
+                }
+            }
+        }
+    }
+
+    private MagicAttacks() {
+    }
+
+    /**
+     * @return squares a bishop on the square attacks given the board's occupancy
+     */
+    static long bishop(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + index];
+    }
+
+    /**
+     * @return squares a rook on the square attacks given the board's occupancy
+     */
+    static long rook(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[ROOK_OFFSETS[square] + index];
+    }
+
+    /**
+     * @return squares a queen on the square attacks given the board's occupancy
+     */
+    static long queen(int square, long occupied) {
+        return bishop(square, occupied) | rook(square, occupied);
+    }
+
+    /**
+     * @return the squares strictly between two squares that share a row, column
+     * or diagonal, or no squares if they don't
+     */
+    static long between(int from, int to) {
+        return BETWEEN[from * 64 + to];
+    }
+
+    /**
+     * Fills in the masks, shifts and offsets for one kind of slider and returns
+     * its attack table
+     */
+    private static long[] buildTable(boolean rook, long[] magics, long[] masks, int[] shifts, int[] offsets) {
+        // Work out each square's mask and where its slice of the table goes
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = rook ? rookMask(square) : bishopMask(square);
+            int bits = Long.bitCount(masks[square]);
+            shifts[square] = 64 - bits;
+            offsets[square] = size;
+            size += 1 << bits;
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            // Visit every subset of the mask (Carry-Rippler trick)
+            long blockers = 0;
+            do {
+                int index = (int) ((blockers * magics[square]) >>> shifts[square]);
+                table[offsets[square] + index] = rook ? slowRook(square, blockers) : slowBishop(square, blockers);
+                blockers = (blockers - masks[square]) & masks[square];
+            } while (blockers != 0);
+        }
+        return table;
+    }
+
+    /**
+     * Edge squares never block anything further along a ray, so they are left
+     * out of the masks unless the piece is on that edge itself
+     */
+    private static long rookMask(int square) {
+        long row = Bitboards.ROW_1 << (square & ~7);
+        long column = Bitboards.COLUMN_1 << (square & 7);
+        long edges = ((Bitboards.ROW_1 | Bitboards.ROW_8) & ~row) | ((Bitboards.COLUMN_1 | Bitboards.COLUMN_8) & ~column);
+        return slowRook(square, 0) & ~edges;
+    }
+
+    private static long bishopMask(int square) {
+        long edges = Bitboards.ROW_1 | Bitboards.ROW_8 | Bitboards.COLUMN_1 | Bitboards.COLUMN_8;
+        return slowBishop(square, 0) & ~edges;
+    }
+
+    /**
+     * Ray-walking attack generation, only used to fill the tables
+     */
+    private static long slowBishop(int square, long occupied) {
+        return Bitboards.ray(square, occupied, 1, 1) | Bitboards.ray(square, occupied, 1, -1)
+                | Bitboards.ray(square, occupied, -1, 1) | Bitboards.ray(square, occupied, -1, -1);
+    }
+
+    private static long slowRook(int square, long occupied) {
+        return Bitboards.ray(square, occupied, 1, 0) | Bitboards.ray(square, occupied, -1, 0)
+                | Bitboards.ray(square, occupied, 0, 1) | Bitboards.ray(square, occupied, 0, -1);
+    }
+}
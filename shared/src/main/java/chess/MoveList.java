@@ -0,0 +1,97 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A reusable list of moves packed by {@link Moves}
+ * <p>
+ * Move generation appends to a caller-owned list instead of building a new
+ * collection, so a list that is cleared and reused produces no garbage once it
+ * has grown to fit the largest position it has seen.
+ */
+public class MoveList {
+    // No legal chess position has more moves than this
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    /**
+     * Appends a packed move, growing the backing array if it is full
+     */
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, Math.max(16, moves.length * 2));
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * @return the packed move at an index
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Replaces the packed move at an index
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * @return how many moves are in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the list holds no moves
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties the list, keeping its backing array
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move from an index onward
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * @return the shared {@link ChessMove} for every move from an index onward
+     */
+    public ArrayList<ChessMove> toChessMoves(int fromIndex) {
+        ArrayList<ChessMove> chessMoves = new ArrayList<>(size - fromIndex);
+        for (int i = fromIndex; i < size; i++) {
+            chessMoves.add(ChessMove.of(moves[i]));
+        }
+        return chessMoves;
+    }
+
+    /**
+     * @return the shared {@link ChessMove} for every move in the list
+     */
+    public ArrayList<ChessMove> toChessMoves() {
+        return toChessMoves(0);
+    }
+}
@@ -0,0 +1,99 @@
+package chess;
+
+/**
+ * Packs chess moves into a single {@code int} so hot paths can pass them
+ * around in primitive arrays
+ * <p>
+ * Layout, from the lowest bit up:
+ * <ul>
+ *     <li>bits 0-5: start square (see {@link #square(int, int)})</li>
+ *     <li>bits 6-11: end square</li>
+ *     <li>bits 12-14: promotion piece, as {@code PieceType.ordinal() + 1}, or 0 for none</li>
+ *     <li>bits 15-18: flags ({@link #CAPTURE}, {@link #DOUBLE_PUSH},
+ *     {@link #EN_PASSANT}, {@link #CASTLE})</li>
+ * </ul>
+ * The flags describe how to play the move but are not part of its identity, so
+ * two encodings that only differ in flags stand for the same {@link ChessMove}.
+ */
+public final class Moves {
+    // Marks a move that takes an enemy piece
+    public static final int CAPTURE = 1 << 15;
+    // Marks a pawn moving two squares from its starting row
+    public static final int DOUBLE_PUSH = 1 << 16;
+    // Marks a pawn taking another pawn en passant
+    public static final int EN_PASSANT = 1 << 17;
+    // Marks a king castling
+    public static final int CASTLE = 1 << 18;
+    // Start square, end square and promotion piece
+    static final int IDENTITY_MASK = (1 << 15) - 1;
+    // Stands for "no move"
+    public static final int NONE = 0;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private Moves() {
+    }
+
+    /**
+     * @return the square index (0-63) of a row and column, both 1-8
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * Encodes a move without flags
+     *
+     * @param from      start square
+     * @param to        end square
+     * @param promotion promotion piece, or null
+     * @return the packed move
+     */
+    public static int encode(int from, int to, ChessPiece.PieceType promotion) {
+        return from | (to << 6) | (promotion == null ? 0 : (promotion.ordinal() + 1) << 12);
+    }
+
+    /**
+     * Encodes a move without flags
+     */
+    public static int encode(ChessMove move) {
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece());
+    }
+
+    /**
+     * @return the start square of a packed move
+     */
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    /**
+     * @return the end square of a packed move
+     */
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    /**
+     * @return the promotion piece of a packed move, or null if it isn't a promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 7;
+        return code == 0 ? null : PIECE_TYPES[code - 1];
+    }
+
+    /**
+     * @return true if the packed move has the given flag set
+     */
+    public static boolean is(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * @return true if two packed moves describe the same move, ignoring flags
+     */
+    public static boolean sameMove(int a, int b) {
+        return (a & IDENTITY_MASK) == (b & IDENTITY_MASK);
+    }
+}
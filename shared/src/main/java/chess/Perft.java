@@ -0,0 +1,102 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft")
+ * <p>
+ * Reference node counts are known for many positions, so perft is the usual
+ * way to check move generation for correctness, and the time it takes is a
+ * good measure of raw move generation speed.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Counts every sequence of legal moves of the given length
+     *
+     * @param game  the position to start from; moves are made and taken back
+     *              in place, so it ends up unchanged
+     * @param depth how many moves (plies) to look ahead
+     * @return the number of leaf positions
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game, depth, moveLists(depth));
+    }
+
+    /**
+     * Like {@link #perft}, but splits the count by first move, which makes it
+     * easy to find a mismatch by comparing against another move generator
+     *
+     * @return the node count under each first move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        MoveList[] lists = moveLists(depth);
+        MoveList moves = lists[depth];
+        game.validMoves(game.getTeamTurn(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            counts.put(ChessMove.of(moves.get(i)), perft(game, depth - 1, lists));
+            game.unmakeMove();
+        }
+        return counts;
+    }
+
+    /**
+     * @param lists one move list per depth left, reused at every node of that depth
+     */
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = lists[depth];
+        moves.clear();
+        game.validMoves(game.getTeamTurn(), moves);
+        // The last ply only needs counting, not playing
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private static MoveList[] moveLists(int depth) {
+        MoveList[] lists = new MoveList[Math.max(depth, 0) + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    /**
+     * Prints the divide output and speed for a position
+     * <p>
+     * Usage: {@code Perft <depth> [fen]}, defaulting to the starting position
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : Fen.START;
+        ChessGame game = Fen.load(fen);
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : divide(game, depth).entrySet()) {
+            System.out.println(Formatting.moveText(entry.getKey()) + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println();
+        System.out.println("Nodes: " + total);
+        System.out.printf("Time: %.3f s (%,d nodes/s)%n", elapsed / 1e9, Formatting.nodesPerSecond(total, elapsed));
+    }
+}
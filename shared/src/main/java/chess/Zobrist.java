@@ -0,0 +1,42 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing
+ * <p>
+ * A position's key is the XOR of one key per (piece, square) on the board and
+ * one for each bit of game state, so making or taking back a move only needs
+ * the keys of what changed. The keys come from a fixed seed so the same
+ * position gets the same key in every JVM.
+ */
+final class Zobrist {
+    // One key per piece index (see ChessBoard.pieceIndex) and square
+    static final long[][] PIECES = new long[12][64];
+    // Folded in when it is black's turn
+    static final long BLACK_TO_MOVE;
+    // One key per combination of the four castling rights
+    static final long[] CASTLING = new long[16];
+    // One key per column an en passant capture can land on
+    static final long[] EN_PASSANT = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_CE55_0240L);
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        // No rights at all leaves the key unchanged
+        for (int rights = 1; rights < 16; rights++) {
+            CASTLING[rights] = random.nextLong();
+        }
+        for (int col = 0; col < 8; col++) {
+            EN_PASSANT[col] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+}
@@ -0,0 +1,177 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds good moves for bots and hints, searching positions from a
+ * {@link ChessGame} without changing it
+ * <p>
+ * Usage: {@code new Engine().search(game, SearchLimits.time(1000)).getBestMove()}
+ * <p>
+ * An engine with more than one thread searches Lazy SMP style: the calling
+ * thread runs the main search, whose result is returned, while helper threads
+ * search the same position and share what they find through the
+ * transposition table. Node limits count the main search's nodes, while the
+ * result reports the nodes of every thread. An engine runs one search at a time; {@link #stop()}
+ * ends it early from another thread, and {@link #close()} shuts the helper
+ * threads down.
+ */
+public class Engine implements AutoCloseable {
+    // Transposition table size when none is given
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+
+    // Shared by every search this engine runs, so later searches start from
+    // what earlier ones learned
+    private final TranspositionTable table;
+    private final int threads;
+    private final SearchConfig config;
+    // Runs the helper searches; null with a single thread
+    private final ExecutorService helpers;
+    // Stop flag of the search running now
+    private volatile AtomicBoolean stop = new AtomicBoolean();
+
+    public Engine() {
+        this(DEFAULT_HASH_MEGABYTES);
+    }
+
+    /**
+     * @param hashMegabytes how much memory the transposition table may use
+     */
+    public Engine(int hashMegabytes) {
+        this(hashMegabytes, 1);
+    }
+
+    /**
+     * @param hashMegabytes how much memory the transposition table may use
+     * @param threads       how many threads each search uses, counting the
+     *                      calling thread, e.g.
+     *                      {@code Runtime.getRuntime().availableProcessors()}
+     */
+    public Engine(int hashMegabytes, int threads) {
+        this(hashMegabytes, threads, SearchConfig.all());
+    }
+
+    /**
+     * @param hashMegabytes how much memory the transposition table may use
+     * @param threads       how many threads each search uses, counting the
+     *                      calling thread
+     * @param config        which selective search techniques to use
+     */
+    public Engine(int hashMegabytes, int threads, SearchConfig config) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        table = new TranspositionTable(hashMegabytes);
+        this.threads = threads;
+        this.config = config;
+        helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, helperThreads());
+    }
+
+    /**
+     * @return how many threads each search uses
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return which selective search techniques searches use
+     */
+    public SearchConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Forgets everything earlier searches learned, for example before
+     * analysing an unrelated game
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    /**
+     * Searches the current position of a game
+     *
+     * @param game   the game to search; it is copied, so it can keep changing
+     *               while the search runs
+     * @param limits when to stop
+     * @return the best move found, with its line of play, score and speed
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        AtomicBoolean searchStop = new AtomicBoolean();
+        stop = searchStop;
+        table.newSearch();
+        // Copies keep the game's earlier positions, so the search sees repetitions
+        ChessGame position = game.copy();
+
+        // Helpers run until the main search is done with them
+        List<Future<SearchResult>> running = new ArrayList<>(threads - 1);
+        for (int helper = 1; helper < threads; helper++) {
+            Searcher searcher = new Searcher(position.copy(), SearchLimits.depth(Searcher.MAX_DEPTH),
+                    config, table, searchStop, helper);
+            running.add(helpers.submit(searcher::run));
+        }
+
+        SearchResult result;
+        try {
+            result = new Searcher(position, limits, config, table, searchStop, 0).run();
+        } finally {
+            searchStop.set(true);
+        }
+        long helperNodes = 0;
+        for (Future<SearchResult> helper : running) {
+            helperNodes += join(helper).getNodes();
+        }
+        return result.withNodes(helperNodes);
+    }
+
+    /**
+     * Ends the search running now as soon as it has a move to return. Safe to
+     * call from any thread, and does nothing if no search is running.
+     */
+    public void stop() {
+        stop.set(true);
+    }
+
+    /**
+     * Shuts down the helper threads; the engine can't search afterwards
+     */
+    @Override
+    public void close() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static SearchResult join(Future<SearchResult> helper) {
+        try {
+            return helper.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Helper search failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a helper search", e);
+        }
+    }
+
+    // Daemon threads, so an engine that is never closed doesn't keep the JVM alive
+    private static ThreadFactory helperThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "search-helper-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
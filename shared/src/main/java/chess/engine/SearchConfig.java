@@ -0,0 +1,96 @@
+package chess.engine;
+
+/**
+ * Which selective search techniques a search uses. Each one trades a little
+ * accuracy in unlikely lines for depth in the likely ones:
+ * <ul>
+ *     <li>null-move pruning: if passing the turn still leaves the position
+ *     good enough, a real move would too, so the node is cut off after a
+ *     shallow search of the pass</li>
+ *     <li>late move reductions: quiet moves that order late are searched less
+ *     deeply, and only searched fully if they turn out better than expected</li>
+ *     <li>futility pruning: just above the horizon, quiet moves are skipped
+ *     when even a generous margin can't lift the evaluation to alpha</li>
+ *     <li>aspiration windows: each iteration starts with a narrow window
+ *     around the last score, widened only if the score falls outside it</li>
+ * </ul>
+ * Start from {@link #all()} or {@link #none()} and switch single techniques,
+ * e.g. {@code SearchConfig.all().withFutility(false)}. Configs are immutable.
+ */
+public final class SearchConfig {
+    private final boolean nullMove;
+    private final boolean lateMoveReductions;
+    private final boolean futility;
+    private final boolean aspirationWindows;
+
+    private SearchConfig(boolean nullMove, boolean lateMoveReductions, boolean futility, boolean aspirationWindows) {
+        this.nullMove = nullMove;
+        this.lateMoveReductions = lateMoveReductions;
+        this.futility = futility;
+        this.aspirationWindows = aspirationWindows;
+    }
+
+    /**
+     * @return a config using every technique, which engines use by default
+     */
+    public static SearchConfig all() {
+        return new SearchConfig(true, true, true, true);
+    }
+
+    /**
+     * @return a config using none of them: a plain full-width search
+     */
+    public static SearchConfig none() {
+        return new SearchConfig(false, false, false, false);
+    }
+
+    /**
+     * @return this config, with null-move pruning switched on or off
+     */
+    public SearchConfig withNullMove(boolean on) {
+        return new SearchConfig(on, lateMoveReductions, futility, aspirationWindows);
+    }
+
+    /**
+     * @return this config, with late move reductions switched on or off
+     */
+    public SearchConfig withLateMoveReductions(boolean on) {
+        return new SearchConfig(nullMove, on, futility, aspirationWindows);
+    }
+
+    /**
+     * @return this config, with futility pruning switched on or off
+     */
+    public SearchConfig withFutility(boolean on) {
+        return new SearchConfig(nullMove, lateMoveReductions, on, aspirationWindows);
+    }
+
+    /**
+     * @return this config, with aspiration windows switched on or off
+     */
+    public SearchConfig withAspirationWindows(boolean on) {
+        return new SearchConfig(nullMove, lateMoveReductions, futility, on);
+    }
+
+    public boolean usesNullMove() {
+        return nullMove;
+    }
+
+    public boolean usesLateMoveReductions() {
+        return lateMoveReductions;
+    }
+
+    public boolean usesFutility() {
+        return futility;
+    }
+
+    public boolean usesAspirationWindows() {
+        return aspirationWindows;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchConfig{nullMove=" + nullMove + ", lateMoveReductions=" + lateMoveReductions
+                + ", futility=" + futility + ", aspirationWindows=" + aspirationWindows + "}";
+    }
+}
@@ -0,0 +1,100 @@
+package chess.engine;
+
+/**
+ * When a search should stop: after a depth, a number of nodes or an amount of
+ * time, whichever comes first
+ * <p>
+ * Start from one limit and add others, e.g.
+ * {@code SearchLimits.time(500).withDepth(12)}. Limits are immutable.
+ */
+public final class SearchLimits {
+    // Stands for "no limit" on nodes or time
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final int depth;
+    private final long nodes;
+    private final long millis;
+
+    private SearchLimits(int depth, long nodes, long millis) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.millis = millis;
+    }
+
+    /**
+     * @return limits that stop after searching a number of plies
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(checkPositive(depth, "depth"), NONE, NONE);
+    }
+
+    /**
+     * @return limits that stop after visiting about a number of nodes
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(Searcher.MAX_DEPTH, checkPositive(nodes, "nodes"), NONE);
+    }
+
+    /**
+     * @return limits that stop after about a number of milliseconds
+     */
+    public static SearchLimits time(long millis) {
+        return new SearchLimits(Searcher.MAX_DEPTH, NONE, checkPositive(millis, "millis"));
+    }
+
+    /**
+     * @return these limits, also stopping after a number of plies
+     */
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(checkPositive(depth, "depth"), nodes, millis);
+    }
+
+    /**
+     * @return these limits, also stopping after about a number of nodes
+     */
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, checkPositive(nodes, "nodes"), millis);
+    }
+
+    /**
+     * @return these limits, also stopping after about a number of milliseconds
+     */
+    public SearchLimits withTime(long millis) {
+        return new SearchLimits(depth, nodes, checkPositive(millis, "millis"));
+    }
+
+    /**
+     * @return the deepest iteration to search, in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return how many nodes to search, or {@link Long#MAX_VALUE} for no limit
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return how long to search in milliseconds, or {@link Long#MAX_VALUE} for no limit
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    private static int checkPositive(int value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return Math.min(value, Searcher.MAX_DEPTH);
+    }
+
+    private static long checkPositive(long value, String name) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive: " + value);
+        }
+        return value;
+    }
+}
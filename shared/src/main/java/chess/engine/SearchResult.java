@@ -0,0 +1,115 @@
+package chess.engine;
+
+import chess.ChessMove;
+import chess.Formatting;
+import chess.Moves;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What a search found: the best move, the line of play it expects
+ * (principal variation), the score, and how much work it took
+ */
+public final class SearchResult {
+    private final int[] principalVariation;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    SearchResult(int[] principalVariation, int score, int depth, long nodes, long elapsedNanos) {
+        this.principalVariation = principalVariation;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return this result, with the nodes other threads searched for it added
+     */
+    SearchResult withNodes(long nodes) {
+        return new SearchResult(principalVariation, score, depth, this.nodes + nodes, elapsedNanos);
+    }
+
+    /**
+     * @return the best move found, or null if the side to move has no moves
+     */
+    public ChessMove getBestMove() {
+        return principalVariation.length == 0 ? null : ChessMove.of(principalVariation[0]);
+    }
+
+    /**
+     * @return the best move found, packed by {@link Moves}, or {@link Moves#NONE}
+     */
+    public int getBestMovePacked() {
+        return principalVariation.length == 0 ? Moves.NONE : principalVariation[0];
+    }
+
+    /**
+     * @return the expected line of play, starting with the best move
+     */
+    public List<ChessMove> getPrincipalVariation() {
+        List<ChessMove> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(ChessMove.of(move));
+        }
+        return Collections.unmodifiableList(moves);
+    }
+
+    /**
+     * @return the score in centipawns for the side to move; mates are scored
+     * beyond every material score, see {@link #isMate()}
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return True if the score is a forced mate, for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Searcher.MATE - Searcher.MAX_PLY;
+    }
+
+    /**
+     * @return the deepest iteration that finished, in plies
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return how many positions the search visited, across all its threads
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return how long the search took, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the search speed, in nodes per second across all its threads
+     */
+    public long getNodesPerSecond() {
+        return Formatting.nodesPerSecond(nodes, elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("depth ").append(depth).append(" score ").append(score)
+                .append(" nodes ").append(nodes).append(" nps ").append(getNodesPerSecond()).append(" pv");
+        for (int move : principalVariation) {
+            text.append(' ').append(Formatting.moveText(ChessMove.of(move)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,497 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.Moves;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One thread's search: iterative deepening over a principal variation search
+ * (PVS), which searches the first move of each node with the full window and
+ * the rest with a null window that only proves them worse, re-searching the
+ * few that aren't
+ * <p>
+ * The searcher plays moves in place on its own game and keeps everything it
+ * needs per ply in preallocated arrays, so a search allocates nothing once it
+ * is running. What it learns goes into a {@link TranspositionTable}, whose
+ * best moves are searched first and whose scores can end a search early.
+ * At the horizon a quiescence search keeps playing captures until the
+ * position is quiet, so a capture is never scored without the recapture.
+ * <p>
+ * Alpha-beta cuts off more the sooner it tries the best move, so moves are
+ * tried in order: the stored best move, captures by most valuable victim
+ * then least valuable attacker (MVV-LVA), the quiet moves that last caused
+ * a cutoff at the same ply (killers), then the other quiet moves by how
+ * often they caused cutoffs anywhere (history).
+ * <p>
+ * On top of that the search prunes and reduces the lines that are unlikely
+ * to matter, with the techniques a {@link SearchConfig} switches on.
+ * <p>
+ * Several searchers can share one table (Lazy SMP): helpers search the same
+ * position, filling the table with results the main searcher then finds
+ * instead of searching them itself. Odd-numbered helpers start one ply
+ * deeper, so the threads spread out rather than all searching the same
+ * nodes in the same order.
+ */
+final class Searcher {
+    // Deepest the search goes, counting every ply from the root
+    static final int MAX_PLY = 128;
+    // Deepest iteration that can be asked for
+    static final int MAX_DEPTH = MAX_PLY - 1;
+    // Score for being mated at the root; mated in n plies scores -(MATE - n)
+    static final int MATE = 31_000;
+    // Larger than any score
+    static final int INFINITY = 32_000;
+    // Nodes between checks of the clock and node limit
+    private static final int CHECK_INTERVAL = 1024;
+
+    // Ordering scores, highest first; history scores stay below the killers
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int KILLER_SCORE = 1 << 28;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    // Null-move pruning searches the pass this many plies shallower, plus one more
+    // from NULL_MOVE_DEEP_DEPTH on
+    private static final int NULL_MOVE_REDUCTION = 2;
+    private static final int NULL_MOVE_DEEP_DEPTH = 7;
+    // Late move reductions apply from this depth, to quiet moves ordered this late,
+    // with one more ply of reduction for moves ordered later than LMR_DEEP_MOVES
+    private static final int LMR_DEPTH = 3;
+    private static final int LMR_MOVES = 3;
+    private static final int LMR_DEEP_MOVES = 8;
+    // Most a quiet move is expected to gain, by the depth left; futility pruning
+    // applies where there is a margin
+    private static final int[] FUTILITY_MARGIN = {0, 200, 500};
+    // Half-width of the first aspiration window, in centipawns; it doubles on each miss
+    private static final int ASPIRATION_WINDOW = 25;
+
+    private final ChessGame game;
+    private final SearchLimits limits;
+    private final SearchConfig config;
+    private final TranspositionTable table;
+    // Set to stop every searcher sharing it
+    private final AtomicBoolean stop;
+    // 0 for the main searcher, whose result is used
+    private final int helper;
+    // Moves at each ply
+    private final MoveList[] moveLists = new MoveList[MAX_PLY];
+    // Triangular principal variation table: row ply holds the best line from ply on
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    // Ordering score of each move at each ply, parallel to moveLists
+    private final int[][] moveScores = new int[MAX_PLY][MoveList.DEFAULT_CAPACITY];
+    // Two quiet moves per ply that last caused a beta cutoff, newest first
+    private final int[][] killers = new int[MAX_PLY][2];
+    // Cutoffs caused by each quiet move, per team, indexed by from * 64 + to
+    private final int[][] history = new int[2][64 * 64];
+
+    private long startTime;
+    private long deadline;
+    private long nodes;
+    // Set once the first iteration has a move to fall back on
+    private boolean canStop;
+    private boolean stopped;
+
+    /**
+     * @param game   a game the searcher owns; it is played on in place
+     * @param limits when to stop
+     * @param config which selective search techniques to use
+     * @param table  where to look up and store results
+     * @param stop   stops the search once it is set, after the first iteration
+     * @param helper 0 for the main searcher, or a helper's number
+     */
+    Searcher(ChessGame game, SearchLimits limits, SearchConfig config, TranspositionTable table,
+             AtomicBoolean stop, int helper) {
+        this.game = game;
+        this.limits = limits;
+        this.config = config;
+        this.table = table;
+        this.stop = stop;
+        this.helper = helper;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Searches one ply deeper at a time until a limit is reached
+     *
+     * @return the result of the deepest iteration that finished
+     */
+    SearchResult run() {
+        startTime = System.nanoTime();
+        deadline = limits.getMillis() == Long.MAX_VALUE
+                ? Long.MAX_VALUE : startTime + limits.getMillis() * 1_000_000L;
+        nodes = 0;
+        canStop = false;
+        stopped = false;
+
+        int[] bestLine = new int[0];
+        int bestScore = 0;
+        int finishedDepth = 0;
+        for (int depth = 1 + (helper & 1); depth <= limits.getDepth(); depth++) {
+            int score = finishedDepth > 0 && config.usesAspirationWindows() && Math.abs(bestScore) < MATE - MAX_PLY
+                    ? aspirate(depth, bestScore) : search(depth, 0, -INFINITY, INFINITY, false);
+            // An iteration that was cut short can't be trusted
+            if (stopped) {
+                break;
+            }
+            bestLine = Arrays.copyOf(pv[0], pvLength[0]);
+            bestScore = score;
+            finishedDepth = depth;
+            canStop = true;
+            if (bestLine.length == 0 || Math.abs(score) >= MATE - depth) {
+                // No moves to search, or a mate that more depth can't improve
+                break;
+            }
+            // An iteration takes longer than all the ones before it, so don't
+            // start one that can't finish
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - startTime > (deadline - startTime) / 2) {
+                break;
+            }
+        }
+        return new SearchResult(bestLine, bestScore, finishedDepth, nodes, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Searches the root with a window around the last iteration's score,
+     * widening it on the side the score fell out of until the score is inside
+     */
+    private int aspirate(int depth, int guess) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(guess - delta, -INFINITY);
+        int beta = Math.min(guess + delta, INFINITY);
+        while (true) {
+            int score = search(depth, 0, alpha, beta, false);
+            if (stopped) {
+                return 0;
+            }
+            delta *= 2;
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+        }
+    }
+
+    /**
+     * Principal variation search
+     *
+     * @param afterNull true right after a null move, so two passes in a row
+     *                  can't hand the move back unchanged
+     * @return the score of the position for the team to move, between alpha
+     * and beta when it is inside the window
+     */
+    private int search(int depth, int ply, int alpha, int beta, boolean afterNull) {
+        pvLength[ply] = ply;
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply > 0 && (game.isFiftyMoveDraw() || game.repetitionCount() > 0)) {
+            // Repeating once is enough to know neither side can do better by it
+            return 0;
+        }
+        if (depth <= 0 || ply >= MAX_DEPTH) {
+            return quiesce(ply, alpha, beta);
+        }
+
+        // Nodes searched with a null window only need to know which side of it
+        // the score is on, so a deep enough stored bound answers them
+        boolean pvNode = beta - alpha > 1;
+        long key = game.zobristKey();
+        long entry = table.probe(key);
+        int hashMove = TranspositionTable.move(entry);
+        if (entry != 0 && !pvNode && TranspositionTable.depth(entry) >= depth) {
+            int score = TranspositionTable.score(entry, ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        ChessGame.TeamColor team = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(team);
+        // The pruning below only trusts the evaluation outside the principal
+        // variation and check
+        boolean canPrune = !pvNode && !inCheck;
+        int staticEval = canPrune ? Evaluation.evaluate(game) : 0;
+
+        // Passing is almost always worse than the best move, so if even a pass
+        // holds beta the node fails high. Without pieces besides pawns, passing
+        // may be the only good move (zugzwang), so it isn't tried; nor is it
+        // when a stored upper bound already says the node fails low.
+        if (config.usesNullMove() && canPrune && !afterNull && depth >= NULL_MOVE_REDUCTION + 1
+                && staticEval >= beta && hasPieces(team)
+                && !(entry != 0 && TranspositionTable.bound(entry) == TranspositionTable.UPPER
+                && TranspositionTable.score(entry, ply) < beta)) {
+            int reduction = NULL_MOVE_REDUCTION + (depth >= NULL_MOVE_DEEP_DEPTH ? 1 : 0);
+            game.makeNullMove();
+            int score = -search(depth - 1 - reduction, ply + 1, -beta, -beta + 1, true);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                // A mate found after passing isn't a real mate
+                score = score >= MATE - MAX_PLY ? beta : score;
+                table.store(key, hashMove, score, depth, TranspositionTable.LOWER, ply);
+                return score;
+            }
+        }
+
+        boolean futile = config.usesFutility() && canPrune && depth < FUTILITY_MARGIN.length
+                && Math.abs(alpha) < MATE - MAX_PLY && staticEval + FUTILITY_MARGIN[depth] <= alpha;
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.validMoves(team, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Moves.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, ply, i);
+            // Captures, promotions, killers and the hash move are never pruned or reduced
+            boolean quiet = moveScores[ply][i] < KILLER_SCORE;
+            game.makeMove(move);
+            boolean givesCheck = quiet && (futile || depth >= LMR_DEPTH) && game.isInCheck(game.getTeamTurn());
+            if (futile && i > 0 && quiet && !givesCheck) {
+                game.unmakeMove();
+                best = Math.max(best, staticEval + FUTILITY_MARGIN[depth]);
+                continue;
+            }
+
+            int score;
+            if (i == 0) {
+                score = -search(depth - 1, ply + 1, -beta, -alpha, false);
+            } else {
+                int reduction = 0;
+                if (config.usesLateMoveReductions() && depth >= LMR_DEPTH && i >= LMR_MOVES
+                        && quiet && !inCheck && !givesCheck) {
+                    reduction = i >= LMR_DEEP_MOVES && depth > LMR_DEPTH ? 2 : 1;
+                }
+                score = -search(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, false);
+                if (score > alpha && reduction > 0) {
+                    // Better than a late move should be: search it fully
+                    score = -search(depth - 1, ply + 1, -alpha - 1, -alpha, false);
+                }
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, ply + 1, -beta, -alpha, false);
+                }
+            }
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    bestMove = move;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        if (!Moves.is(move, Moves.CAPTURE)) {
+                            rememberCutoff(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, bestMove, best, depth, bound, ply);
+        return best;
+    }
+
+    /**
+     * @return true if a team has a piece other than its king and pawns
+     */
+    private boolean hasPieces(ChessGame.TeamColor team) {
+        ChessBoard board = game.getBoard();
+        return (board.teamPieces(team) & ~board.pieces(team, ChessPiece.PieceType.PAWN)
+                & ~board.pieces(team, ChessPiece.PieceType.KING)) != 0;
+    }
+
+    /**
+     * Searches captures (and promotions) only, until the position is quiet enough for its
+     * static evaluation to be trusted. The team to move can also "stand pat"
+     * on the evaluation instead of capturing, unless it is in check, when
+     * every evasion is searched instead.
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0) {
+            checkLimits();
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply >= MAX_DEPTH) {
+            return Evaluation.evaluate(game);
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = Evaluation.evaluate(game);
+            if (best >= beta) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        if (inCheck) {
+            game.validMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                return -MATE + ply;
+            }
+        } else {
+            game.captureMoves(game.getTeamTurn(), moves);
+        }
+        scoreMoves(moves, ply, Moves.NONE);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickMove(moves, ply, i);
+            if (!inCheck && moveScores[ply][i] < CAPTURE_SCORE) {
+                // Captures and queen promotions sort first; only underpromotions are left
+                break;
+            }
+            game.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (score >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gives every move at a ply its ordering score. A stored move may come
+     * from another position whose key collides with this one, so it only
+     * counts if the position really has it.
+     */
+    private void scoreMoves(MoveList moves, int ply, int hashMove) {
+        ChessBoard board = game.getBoard();
+        int[] scores = moveScores[ply];
+        int[] teamHistory = history[game.getTeamTurn().ordinal()];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int from = Moves.from(move);
+            int to = Moves.to(move);
+            ChessPiece.PieceType promotion = Moves.promotion(move);
+            if (hashMove != Moves.NONE && Moves.sameMove(move, hashMove)) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (Moves.is(move, Moves.CAPTURE) || promotion == ChessPiece.PieceType.QUEEN) {
+                // En passant captures onto an empty square, but always takes a pawn
+                ChessPiece victim = board.getPiece(to);
+                int gain = victim == null
+                        ? (Moves.is(move, Moves.CAPTURE) ? Evaluation.VALUES[ChessPiece.PieceType.PAWN.ordinal()] : 0)
+                        : Evaluation.VALUES[victim.getPieceType().ordinal()];
+                if (promotion != null) {
+                    gain += Evaluation.VALUES[promotion.ordinal()];
+                }
+                // Kings count as the cheapest attacker: a legal king capture is never recaptured
+                int attacker = Evaluation.VALUES[board.getPiece(from).getPieceType().ordinal()];
+                scores[i] = CAPTURE_SCORE + gain * 16 - attacker / 16;
+            } else if (Moves.sameMove(move, killers[ply][0])) {
+                scores[i] = KILLER_SCORE + 1;
+            } else if (Moves.sameMove(move, killers[ply][1])) {
+                scores[i] = KILLER_SCORE;
+            } else {
+                scores[i] = teamHistory[from * 64 + to];
+            }
+        }
+    }
+
+    /**
+     * Swaps the best-scored of the moves not yet tried into place. Sorting as
+     * the moves are tried saves sorting the ones a cutoff never reaches.
+     *
+     * @return the move to try next
+     */
+    private int pickMove(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (!Moves.sameMove(move, killers[ply][0])) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] teamHistory = history[game.getTeamTurn().ordinal()];
+        int index = Moves.from(move) * 64 + Moves.to(move);
+        teamHistory[index] += depth * depth;
+        if (teamHistory[index] >= HISTORY_LIMIT) {
+            // Keep the scores below the killers, and let older cutoffs fade
+            for (int[] scores : history) {
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] /= 2;
+                }
+            }
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        // The child's line follows this move
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - (ply + 1));
+        pvLength[ply] = length;
+    }
+
+    private void checkLimits() {
+        if (canStop && (stop.get() || nodes >= limits.getNodes() || System.nanoTime() >= deadline)) {
+            stopped = true;
+        }
+    }
+}
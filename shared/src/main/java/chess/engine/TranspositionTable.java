@@ -0,0 +1,171 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Remembers what earlier searches learned about positions, keyed by
+ * {@link chess.ChessGame#zobristKey()}, so transpositions and later iterations
+ * don't search them again
+ * <p>
+ * Entries live in one preallocated {@code long[]}, two words each: the entry's
+ * data, and its key XORed with that data. A reader recomputes the key from
+ * both words and only trusts the entry if it matches, so when two threads
+ * write the same slot at once the torn mix of their words is simply a miss.
+ * That makes the table safe to share between search threads without locks.
+ * <p>
+ * Data word layout, from the lowest bit up:
+ * <ul>
+ *     <li>bits 0-18: best move, packed by {@link chess.Moves}, or 0</li>
+ *     <li>bits 19-34: score, offset to be unsigned</li>
+ *     <li>bits 35-42: depth searched</li>
+ *     <li>bits 43-44: bound ({@link #EXACT}, {@link #LOWER} or {@link #UPPER})</li>
+ *     <li>bits 45-52: the search that wrote it, for replacement</li>
+ * </ul>
+ */
+public final class TranspositionTable {
+    // The score is the true score of the position
+    static final int EXACT = 1;
+    // The true score is at least the stored score (the search failed high)
+    static final int LOWER = 2;
+    // The true score is at most the stored score (the search failed low)
+    static final int UPPER = 3;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int MOVE_BITS = 19;
+    private static final int SCORE_SHIFT = MOVE_BITS;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + 16;
+    private static final int BOUND_SHIFT = DEPTH_SHIFT + 8;
+    private static final int AGE_SHIFT = BOUND_SHIFT + 2;
+
+    private final long[] entries;
+    private final int mask;
+    // Counts searches, so entries from old searches can be replaced first
+    private volatile int age;
+
+    /**
+     * @param megabytes how much memory the table may use; it gets the largest
+     *                  power-of-two number of entries that fits
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes <= 0) {
+            throw new IllegalArgumentException("Table size must be positive: " + megabytes + " MB");
+        }
+        long count = Long.highestOneBit((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY);
+        // Two words per entry must fit in one array
+        count = Math.min(count, 1L << 29);
+        entries = new long[(int) count * 2];
+        mask = (int) count - 1;
+    }
+
+    /**
+     * @return how many entries the table holds
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Forgets every entry, for example before analysing an unrelated game
+     */
+    public void clear() {
+        Arrays.fill(entries, 0);
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches are
+     * replaced before ones from this search
+     */
+    void newSearch() {
+        age = (age + 1) & 255;
+    }
+
+    /**
+     * @return the entry's data word for a key, or 0 if the table has nothing
+     * for it
+     */
+    long probe(long key) {
+        int index = ((int) key & mask) * 2;
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == key ? data : 0;
+    }
+
+    /**
+     * Stores what a search found, unless the slot holds a deeper result from
+     * this search for another position
+     *
+     * @param ply how far the position is from the root, so mate scores can be
+     *            stored relative to the position rather than the root
+     */
+    void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = ((int) key & mask) * 2;
+        long old = entries[index + 1];
+        boolean sameKey = (entries[index] ^ old) == key;
+        if (!sameKey && old != 0 && age(old) == age && depth(old) > depth) {
+            return;
+        }
+        // Keep a known best move rather than overwrite it with none
+        if (move == 0 && sameKey) {
+            move = move(old);
+        }
+        long data = (move & ((1L << MOVE_BITS) - 1))
+                | ((long) (toTable(score, ply) + 32768) << SCORE_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) age << AGE_SHIFT);
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * @return the best move of a data word, or 0 if none was stored
+     */
+    static int move(long data) {
+        return (int) data & ((1 << MOVE_BITS) - 1);
+    }
+
+    /**
+     * @return the score of a data word, as seen from a position ply moves from the root
+     */
+    static int score(long data, int ply) {
+        return fromTable((int) (data >>> SCORE_SHIFT & 0xFFFF) - 32768, ply);
+    }
+
+    /**
+     * @return the depth of a data word
+     */
+    static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & 255;
+    }
+
+    /**
+     * @return the bound of a data word
+     */
+    static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & 3;
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> AGE_SHIFT) & 255;
+    }
+
+    // Mate scores count plies from the root; stored, they count from the position instead
+    private static int toTable(int score, int ply) {
+        if (score >= Searcher.MATE - Searcher.MAX_PLY) {
+            return score + ply;
+        }
+        if (score <= -Searcher.MATE + Searcher.MAX_PLY) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= Searcher.MATE - Searcher.MAX_PLY) {
+            return score - ply;
+        }
+        if (score <= -Searcher.MATE + Searcher.MAX_PLY) {
+            return score + ply;
+        }
+        return score;
+    }
+}
@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class AttackMapTests {
+
+    @Test
+    @DisplayName("Attack Maps Follow Moves")
+    public void attackMapsFollowMoves() {
+        ChessGame game = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1");
+        Random random = new Random(240);
+        MoveList moves = new MoveList();
+
+        int played = 0;
+        for (int ply = 0; ply < 80; ply++) {
+            assertMatchesScan(game.getBoard());
+            moves.clear();
+            if (game.validMoves(game.getTeamTurn(), moves) == 0) {
+                break;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+            played++;
+        }
+        for (int ply = 0; ply < played; ply++) {
+            game.unmakeMove();
+            assertMatchesScan(game.getBoard());
+        }
+    }
+
+    @Test
+    @DisplayName("Blocking A Slider Updates Attacks")
+    public void blockingSliderUpdatesAttacks() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        int target = Moves.square(8, 1);
+        Assertions.assertEquals(1, board.attackCount(target, ChessGame.TeamColor.WHITE));
+
+        board.addPiece(ChessPosition.of(4, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(0, board.attackCount(target, ChessGame.TeamColor.WHITE));
+
+        board.addPiece(ChessPosition.of(4, 1), null);
+        Assertions.assertEquals(1, board.attackCount(target, ChessGame.TeamColor.WHITE));
+        assertMatchesScan(board);
+    }
+
+    /**
+     * Recounts every attack from scratch and compares with the board's maps
+     */
+    private static void assertMatchesScan(ChessBoard board) {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int[] counts = new int[64];
+            long pieces = board.teamPieces(color);
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                ChessPiece piece = board.getPiece(square);
+                long attacks = Bitboards.attacks(piece.getPieceType(), color, square, board.occupied());
+                for (int target = 0; target < 64; target++) {
+                    if ((attacks & (1L << target)) != 0) {
+                        counts[target]++;
+                    }
+                }
+            }
+            long attacked = 0;
+            for (int square = 0; square < 64; square++) {
+                Assertions.assertEquals(counts[square], board.attackCount(square, color),
+                        color + " attack count wrong on square " + square);
+                if (counts[square] > 0) {
+                    attacked |= 1L << square;
+                }
+            }
+            Assertions.assertEquals(attacked, board.attackedSquares(color));
+        }
+    }
+}
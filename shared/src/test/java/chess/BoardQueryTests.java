@@ -0,0 +1,124 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class BoardQueryTests {
+
+    @Test
+    @DisplayName("King Position Follows The King")
+    public void kingPositionFollowsKing() throws InvalidMoveException {
+        ChessGame game = Fen.load("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        ChessBoard board = game.getBoard();
+        Assertions.assertEquals(ChessPosition.of(1, 5), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessPosition.of(8, 5), board.getKingPosition(ChessGame.TeamColor.BLACK));
+
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 4), null));
+        Assertions.assertEquals(ChessPosition.of(2, 4), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        game.takeBack();
+        Assertions.assertEquals(ChessPosition.of(1, 5), board.getKingPosition(ChessGame.TeamColor.WHITE));
+
+        board.addPiece(ChessPosition.of(8, 5), null);
+        Assertions.assertNull(board.getKingPosition(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Off-Board Positions Are Rejected")
+    public void offBoardPositionsRejected() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessPiece rook = board.getPiece(ChessPosition.of(1, 1));
+
+        // Row 0, column 9 would wrap onto a1
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> board.getPiece(ChessPosition.of(0, 9)));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class, () -> board.getPiece(ChessPosition.of(9, 1)));
+        Assertions.assertThrows(ArrayIndexOutOfBoundsException.class,
+                () -> board.addPiece(ChessPosition.of(0, 9), null));
+        Assertions.assertSame(rook, board.getPiece(ChessPosition.of(1, 1)));
+    }
+
+    @Test
+    @DisplayName("Gson Round Trip Keeps The Position And Nothing Else")
+    public void gsonRoundTrip() throws InvalidMoveException {
+        ChessGame game = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        game.makeMove(new ChessMove(ChessPosition.of(2, 1), ChessPosition.of(4, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 3), ChessPosition.of(5, 3), null));
+
+        Gson gson = new Gson();
+        String json = gson.toJson(game);
+        // Only the pieces, turn and game state are written, not the derived board
+        // state, undo stack or key history
+        Assertions.assertTrue(json.length() < 400, json.length() + " characters: " + json);
+        Assertions.assertFalse(json.contains("keyHistory") || json.contains("attackCounts"), json);
+
+        ChessGame loaded = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.zobristKey(), loaded.zobristKey());
+        Assertions.assertEquals(game.gameState(), loaded.gameState());
+        Assertions.assertEquals(new HashSet<>(game.allValidMoves(ChessGame.TeamColor.WHITE)),
+                new HashSet<>(loaded.allValidMoves(ChessGame.TeamColor.WHITE)));
+        Assertions.assertEquals(game.getBoard().getKingPosition(ChessGame.TeamColor.BLACK),
+                loaded.getBoard().getKingPosition(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(0, loaded.movesPlayed());
+
+        // The loaded game plays on normally
+        loaded.makeMove(new ChessMove(ChessPosition.of(5, 4), ChessPosition.of(6, 3), null));
+        Assertions.assertEquals(1, loaded.movesPlayed());
+    }
+
+    @Test
+    @DisplayName("Team Pieces Holds Only That Team")
+    public void teamPieces() {
+        ChessBoard board = Fen.load("4k3/8/8/3p4/8/8/8/R3K3 w - - 0 1").getBoard();
+
+        long white = board.teamPieces(ChessGame.TeamColor.WHITE);
+        long black = board.teamPieces(ChessGame.TeamColor.BLACK);
+
+        Assertions.assertEquals((1L << Moves.square(1, 1)) | (1L << Moves.square(1, 5)), white);
+        Assertions.assertEquals((1L << Moves.square(8, 5)) | (1L << Moves.square(5, 4)), black);
+    }
+
+    @Test
+    @DisplayName("Square Attacked Looks Outward From The Square")
+    public void squareAttacked() {
+        // White rook on a1 and knight on c3, black bishop on b4 and pawn on e5
+        ChessBoard board = Fen.load("4k3/8/8/4p3/1b6/2N5/8/R3K3 w - - 0 1").getBoard();
+        ChessPosition d4 = ChessPosition.of(4, 4);
+
+        Assertions.assertTrue(board.isSquareAttacked(d4, ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(1L << Moves.square(5, 5), board.attackersOf(d4, ChessGame.TeamColor.BLACK));
+
+        // The rook up the a-file and the knight on c3 both attack a4
+        ChessPosition a4 = ChessPosition.of(4, 1);
+        long attackers = board.attackersOf(a4, ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals((1L << Moves.square(1, 1)) | (1L << Moves.square(3, 3)), attackers);
+
+        // The knight blocks the bishop from reaching d2
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(2, 4), ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(3, 3), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Boards Hand Out Shared Pieces")
+    public void sharedPieces() {
+        ChessPiece queen = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
+        Assertions.assertSame(queen, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN), queen);
+
+        // Pieces built by callers are swapped for the shared one
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(4, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        Assertions.assertSame(queen, board.getPiece(ChessPosition.of(4, 4)));
+
+        // Including after a round trip through JSON
+        ChessGame game = new Gson().fromJson(new Gson().toJson(new ChessGame()), ChessGame.class);
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                game.getBoard().getPiece(ChessPosition.of(1, 4)));
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+}
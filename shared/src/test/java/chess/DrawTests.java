@@ -0,0 +1,80 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DrawTests {
+
+    @Test
+    @DisplayName("Knight Shuffle Repeats Three Times")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        Assertions.assertEquals(1, game.repetitionCount());
+        Assertions.assertFalse(game.isDraw(), "Two occurrences are not a draw yet");
+
+        shuffleKnights(game);
+        Assertions.assertEquals(2, game.repetitionCount());
+        Assertions.assertTrue(game.isThreefoldRepetition());
+        Assertions.assertTrue(game.isDraw());
+
+        // Taking a move back leaves a different position
+        game.takeBack();
+        Assertions.assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Copies Remember Earlier Positions")
+    public void copyKeepsHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        ChessGame copy = game.copy();
+        Assertions.assertEquals(game, copy);
+        Assertions.assertEquals(1, copy.repetitionCount());
+
+        // The copy plays on by itself
+        shuffleKnights(copy);
+        Assertions.assertTrue(copy.isThreefoldRepetition());
+        Assertions.assertEquals(1, game.repetitionCount());
+        Assertions.assertEquals(4, game.movesPlayed());
+    }
+
+    @Test
+    @DisplayName("Pawn Moves Start The Window Over")
+    public void irreversibleMoveClearsRepetitions() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        game.makeMove(move(2, 1, 3, 1));
+        game.makeMove(move(7, 1, 6, 1));
+        shuffleKnights(game);
+        Assertions.assertEquals(1, game.repetitionCount(), "Positions before the pawn moves can't repeat");
+    }
+
+    @Test
+    @DisplayName("Fifty Moves Without Progress")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = Fen.load("4k3/8/8/8/8/8/4P3/4K3 w - - 99 80");
+        Assertions.assertFalse(game.isDraw());
+
+        game.makeMove(move(1, 5, 1, 4));
+        Assertions.assertTrue(game.isFiftyMoveDraw());
+        Assertions.assertTrue(game.isDraw());
+
+        // A pawn move resets the clock
+        game.takeBack();
+        game.makeMove(move(2, 5, 3, 5));
+        Assertions.assertFalse(game.isFiftyMoveDraw());
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(move(1, 7, 3, 6));
+        game.makeMove(move(8, 7, 6, 6));
+        game.makeMove(move(3, 6, 1, 7));
+        game.makeMove(move(6, 6, 8, 7));
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), null);
+    }
+}
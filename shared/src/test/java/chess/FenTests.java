@@ -0,0 +1,37 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Loads The Starting Position")
+    public void loadsStart() {
+        Assertions.assertEquals(new ChessGame(), Fen.load(Fen.START));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // Seven rows
+            "rnbqkbnr/pppppppp/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            // Nine rows
+            "rnbqkbnr/pppppppp/8/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            // A row one column short
+            "rnbqkbnr/ppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            // A row one column long
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/4P4/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1",
+            // An empty row
+            "rnbqkbnr/pppppppp//8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            // A zero counts no columns
+            "rnbqkbnr/pppppppp/08/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+    })
+    @DisplayName("Rejects Placements That Aren't 8 By 8")
+    public void rejectsBadPlacement(String fen) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.load(fen));
+    }
+}
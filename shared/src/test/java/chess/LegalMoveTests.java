@@ -0,0 +1,176 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compares the check- and pin-aware generator with the obvious approach of
+ * playing every pseudo-legal move and looking for check, along random lines
+ * of play
+ */
+public class LegalMoveTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w - - 0 1",
+            "4k3/8/8/1b6/8/3r4/2P5/r2BK2q w - - 0 1",
+    })
+    @DisplayName("Legal Moves Match Brute Force")
+    public void legalMovesMatchBruteForce(String fen) {
+        ChessGame game = Fen.load(fen);
+        Random random = new Random(240);
+        MoveList moves = new MoveList();
+        MoveList captures = new MoveList();
+
+        for (int line = 0; line < 20; line++) {
+            int played = 0;
+            for (int ply = 0; ply < 40; ply++) {
+                // Nothing is cached here, so these take their short-circuit paths
+                int count = game.countLegalMoves(game.getTeamTurn());
+                boolean any = game.hasAnyLegalMove(game.getTeamTurn());
+                moves.clear();
+                game.validMoves(game.getTeamTurn(), moves);
+                Assertions.assertEquals(bruteForce(game), toSet(moves), "Wrong legal moves in line " + line);
+                Assertions.assertEquals(moves.size(), count, "Wrong move count in line " + line);
+                Assertions.assertEquals(!moves.isEmpty(), any, "Wrong hasAnyLegalMove in line " + line);
+                captures.clear();
+                game.captureMoves(game.getTeamTurn(), captures);
+                Assertions.assertEquals(capturesAndPromotions(moves), toSet(captures), "Wrong captures in line " + line);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+                played++;
+            }
+            for (int ply = 0; ply < played; ply++) {
+                game.unmakeMove();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("All Valid Moves Matches Per-Piece Moves")
+    public void allValidMovesMatchesPerPiece() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int turn = 0; turn < 2; turn++) {
+            Set<ChessMove> perPiece = new HashSet<>();
+            for (long pieces = game.getBoard().teamPieces(game.getTeamTurn()); pieces != 0; pieces &= pieces - 1) {
+                perPiece.addAll(game.validMoves(ChessPosition.of(Long.numberOfTrailingZeros(pieces))));
+            }
+            Collection<ChessMove> all = game.allValidMoves(game.getTeamTurn());
+            Assertions.assertEquals(perPiece, new HashSet<>(all));
+            Assertions.assertSame(all, game.allValidMoves(game.getTeamTurn()), "Moves were not cached");
+            Assertions.assertThrows(UnsupportedOperationException.class, all::clear);
+
+            // The cache must not survive a move
+            game.makeMove(all.iterator().next());
+            Assertions.assertNotEquals(all, game.allValidMoves(game.getTeamTurn()));
+        }
+    }
+
+    @Test
+    @DisplayName("Move Queries Agree With The Cache")
+    public void moveQueriesAgreeWithCache() {
+        // Black is stalemated, then white to move has plenty
+        ChessGame game = Fen.load("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        Assertions.assertFalse(game.hasAnyLegalMove(ChessGame.TeamColor.BLACK));
+        Assertions.assertEquals(0, game.countLegalMoves(ChessGame.TeamColor.BLACK));
+        Assertions.assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+
+        int white = game.allValidMoves(ChessGame.TeamColor.WHITE).size();
+        Assertions.assertEquals(white, game.countLegalMoves(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.hasAnyLegalMove(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Only The Team To Move Can Take En Passant")
+    public void enPassantOnlyForTeamToMove() throws InvalidMoveException {
+        ChessGame game = Fen.load("4k3/8/8/8/3p4/8/3PP3/4K3 w - - 0 1");
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        ChessMove blackTakes = new ChessMove(ChessPosition.of(4, 4), ChessPosition.of(3, 5), null);
+        Assertions.assertTrue(game.validMoves(ChessPosition.of(4, 4)).contains(blackTakes));
+
+        // White's d2 pawn attacks e3 too, but it wasn't White's pawn that passed it
+        Assertions.assertFalse(game.validMoves(ChessPosition.of(2, 4))
+                .contains(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(3, 5), null)));
+
+        // Handing the turn around by hand gives the capture up
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(GameState.NO_SQUARE, GameState.enPassant(game.gameState()));
+        Assertions.assertFalse(game.validMoves(ChessPosition.of(4, 4)).contains(blackTakes));
+    }
+
+    @Test
+    @DisplayName("En Passant Can't Uncover A Check Along The Row")
+    public void enPassantRowPin() {
+        // Taking e3 in passing would empty e4 and f4, leaving the rook on b4 facing the king on h4
+        ChessGame game = Fen.load("8/2p5/3p4/KP5r/1R2Pp1k/8/6P1/8 b - e3 0 1");
+        Assertions.assertEquals(Moves.square(3, 5), GameState.enPassant(game.gameState()));
+        Collection<ChessMove> moves = game.validMoves(ChessPosition.of(4, 6));
+        Assertions.assertFalse(moves.contains(new ChessMove(ChessPosition.of(4, 6), ChessPosition.of(3, 5), null)));
+        Assertions.assertTrue(moves.contains(new ChessMove(ChessPosition.of(4, 6), ChessPosition.of(3, 6), null)));
+    }
+
+    private static Set<Integer> bruteForce(ChessGame game) {
+        ChessGame.TeamColor color = game.getTeamTurn();
+        ChessBoard board = game.getBoard();
+        MoveList pseudo = new MoveList();
+        long pieces = board.teamPieces(color);
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            board.getPiece(square).pieceMoves(board, square, pseudo);
+        }
+        // Piece moves can't know about en passant, so add every pawn that could take
+        int target = GameState.enPassant(game.gameState());
+        if (target != GameState.NO_SQUARE) {
+            long capturers = Bitboards.pawn(target, ChessGame.opponent(color))
+                    & board.pieces(color, ChessPiece.PieceType.PAWN);
+            while (capturers != 0) {
+                int square = Long.numberOfTrailingZeros(capturers);
+                capturers &= capturers - 1;
+                pseudo.add(Moves.encode(square, target, null) | Moves.EN_PASSANT | Moves.CAPTURE);
+            }
+        }
+        Set<Integer> legal = new TreeSet<>();
+        for (int i = 0; i < pseudo.size(); i++) {
+            game.makeMove(pseudo.get(i));
+            if (!game.isInCheck(color)) {
+                legal.add(pseudo.get(i));
+            }
+            game.unmakeMove();
+        }
+        return legal;
+    }
+
+    private static Set<Integer> capturesAndPromotions(MoveList moves) {
+        Set<Integer> set = new TreeSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (Moves.is(move, Moves.CAPTURE) || Moves.promotion(move) != null) {
+                set.add(move);
+            }
+        }
+        return set;
+    }
+
+    private static Set<Integer> toSet(MoveList moves) {
+        Set<Integer> set = new TreeSet<>();
+        for (int i = 0; i < moves.size(); i++) {
+            set.add(moves.get(i));
+        }
+        return set;
+    }
+}
@@ -0,0 +1,46 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotTests {
+
+    @Test
+    @DisplayName("Board Copy Is Independent")
+    public void boardCopyIsIndependent() {
+        ChessBoard board = Fen.load("4k3/8/8/8/8/8/8/4K3 w - - 0 1").getBoard();
+        ChessBoard copy = board.copy();
+        Assertions.assertEquals(board, copy);
+        Assertions.assertEquals(board.zobristKey(), copy.zobristKey());
+
+        copy.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        Assertions.assertNull(board.getPiece(ChessPosition.of(4, 4)));
+        Assertions.assertNotEquals(board, copy);
+        // The copy's attack maps carried over and kept up with the new queen
+        Assertions.assertTrue(copy.isSquareAttacked(ChessPosition.of(4, 1), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(4, 1), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Snapshot Doesn't Follow The Game")
+    public void snapshotDoesNotFollowGame() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        GameSnapshot snapshot = game.snapshot();
+        ChessGame copy = snapshot.toGame();
+
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, snapshot.getTeamTurn());
+        Assertions.assertNotNull(snapshot.getPiece(ChessPosition.of(7, 5)));
+        Assertions.assertNotEquals(game.zobristKey(), snapshot.zobristKey());
+
+        // The snapshot's game plays on by itself and matches the original position
+        Assertions.assertEquals(snapshot.zobristKey(), copy.zobristKey());
+        Assertions.assertEquals(snapshot.gameState(), copy.gameState());
+        copy.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        Assertions.assertEquals(snapshot, snapshot.toGame().snapshot());
+        Assertions.assertNotEquals(snapshot, copy.snapshot());
+        Assertions.assertNotEquals(snapshot, game.snapshot());
+    }
+}
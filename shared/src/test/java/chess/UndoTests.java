@@ -0,0 +1,87 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class UndoTests {
+
+    @Test
+    @DisplayName("Unmake Restores Position")
+    public void unmakeRestoresPosition() {
+        ChessGame game = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        ChessGame original = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Random random = new Random(240);
+        MoveList moves = new MoveList();
+
+        // Play a random line, then take every move back
+        int played = 0;
+        for (int ply = 0; ply < 100; ply++) {
+            moves.clear();
+            if (game.validMoves(game.getTeamTurn(), moves) == 0) {
+                break;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+            played++;
+        }
+        for (int ply = 0; ply < played; ply++) {
+            game.unmakeMove();
+        }
+
+        Assertions.assertEquals(original, game, "Position was not restored after taking back every move");
+        Assertions.assertEquals(original.zobristKey(), game.zobristKey());
+        Assertions.assertEquals(original.gameState(), game.gameState());
+        Assertions.assertEquals(0, game.movesPlayed());
+    }
+
+    @Test
+    @DisplayName("Off-Board Moves Are Invalid")
+    public void offBoardMovesInvalid() {
+        ChessGame game = new ChessGame();
+        long key = game.zobristKey();
+
+        // Column 0 of row 4 would encode as h3
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(4, 0), null)));
+        Assertions.assertThrows(InvalidMoveException.class,
+                () -> game.makeMove(new ChessMove(ChessPosition.of(0, 9), ChessPosition.of(3, 1), null)));
+        Assertions.assertEquals(key, game.zobristKey());
+        Assertions.assertEquals(0, game.movesPlayed());
+    }
+
+    @Test
+    @DisplayName("Null Move Passes The Turn")
+    public void nullMovePassesTurn() {
+        // Black just played d7d5 and e5xd6 is available
+        ChessGame game = Fen.load("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 2");
+        ChessGame passed = Fen.load("4k3/8/8/3pP3/8/8/8/4K3 b - - 0 2");
+        long key = game.zobristKey();
+        long state = game.gameState();
+
+        game.makeNullMove();
+        Assertions.assertEquals(passed, game);
+        Assertions.assertEquals(passed.zobristKey(), game.zobristKey(), "En passant should be gone after passing");
+        Assertions.assertEquals(0, game.repetitionCount());
+
+        Assertions.assertEquals(Moves.NONE, game.unmakeMove());
+        Assertions.assertEquals(key, game.zobristKey());
+        Assertions.assertEquals(state, game.gameState());
+        Assertions.assertEquals(0, game.movesPlayed());
+    }
+
+    @Test
+    @DisplayName("Take Back Promotion")
+    public void takeBackPromotion() throws InvalidMoveException {
+        ChessGame game = Fen.load("8/2P3k1/8/8/8/8/8/4K3 w - - 0 1");
+        ChessMove promotion = new ChessMove(ChessPosition.of(7, 3), ChessPosition.of(8, 3), ChessPiece.PieceType.KNIGHT);
+        game.makeMove(promotion);
+
+        Assertions.assertEquals(promotion, game.takeBack());
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                game.getBoard().getPiece(ChessPosition.of(7, 3)));
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertNull(game.takeBack(), "Nothing should be left to take back");
+    }
+}
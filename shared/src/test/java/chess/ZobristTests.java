@@ -0,0 +1,83 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental Key Matches Fresh Board")
+    public void incrementalKeyMatchesFreshBoard() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5));
+        game.makeMove(move(7, 4, 5, 4));
+        game.makeMove(move(4, 5, 5, 4));
+
+        ChessGame expected = Fen.load("rnbqkbnr/ppp1pppp/8/3P4/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 3");
+        Assertions.assertEquals(expected.zobristKey(), game.zobristKey(),
+                "Key after a capture did not match the key of the same position built from scratch");
+    }
+
+    @Test
+    @DisplayName("Transpositions Share A Key")
+    public void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame knightsFirst = new ChessGame();
+        knightsFirst.makeMove(move(1, 7, 3, 6));
+        knightsFirst.makeMove(move(8, 7, 6, 6));
+        knightsFirst.makeMove(move(1, 2, 3, 3));
+
+        ChessGame otherOrder = new ChessGame();
+        otherOrder.makeMove(move(1, 2, 3, 3));
+        otherOrder.makeMove(move(8, 7, 6, 6));
+        otherOrder.makeMove(move(1, 7, 3, 6));
+
+        Assertions.assertEquals(knightsFirst.zobristKey(), otherOrder.zobristKey());
+        Assertions.assertEquals(knightsFirst, otherOrder);
+    }
+
+    @Test
+    @DisplayName("Castling And En Passant Keys Match Fresh Board")
+    public void castlingAndEnPassantKeys() throws InvalidMoveException {
+        ChessGame castled = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        castled.makeMove(move(1, 5, 1, 7));
+        ChessGame expected = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R4RK1 b kq - 1 1");
+        Assertions.assertEquals(expected.zobristKey(), castled.zobristKey());
+        Assertions.assertEquals(expected.gameState(), castled.gameState());
+
+        // Black's pawn on f4 can take the e-pawn in passing, so e3 is part of the key
+        ChessGame pushed = Fen.load("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        pushed.makeMove(move(2, 5, 4, 5));
+        expected = Fen.load("8/2p5/3p4/KP5r/1R2Pp1k/8/6P1/8 b - e3 0 1");
+        Assertions.assertEquals(expected.zobristKey(), pushed.zobristKey());
+        Assertions.assertNotEquals(Fen.load("8/2p5/3p4/KP5r/1R2Pp1k/8/6P1/8 b - - 0 1").zobristKey(),
+                pushed.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Side To Move Changes Key")
+    public void sideToMoveChangesKey() {
+        ChessGame white = new ChessGame();
+        ChessGame black = new ChessGame();
+        black.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        Assertions.assertEquals(white.getBoard().zobristKey(), black.getBoard().zobristKey());
+        Assertions.assertNotEquals(white.zobristKey(), black.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Removing Pieces Restores Key")
+    public void removingPiecesRestoresKey() {
+        ChessBoard board = new ChessBoard();
+        long empty = board.zobristKey();
+        board.addPiece(ChessPosition.of(4, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(ChessPosition.of(4, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(ChessPosition.of(4, 4), null);
+
+        Assertions.assertEquals(empty, board.zobristKey());
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(ChessPosition.of(startRow, startCol), ChessPosition.of(endRow, endCol), null);
+    }
+}
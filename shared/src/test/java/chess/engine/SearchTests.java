@@ -0,0 +1,192 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+    private static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private final Engine engine = new Engine();
+
+    @Test
+    @DisplayName("Finds Back Rank Mate")
+    public void findsMateInOne() {
+        ChessGame game = Fen.load("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(move(1, 1, 8, 1), result.getBestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertTrue(result.getScore() > 0, "White is the one mating");
+    }
+
+    @Test
+    @DisplayName("Takes A Hanging Queen")
+    public void takesHangingQueen() {
+        ChessGame game = Fen.load("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(move(2, 4, 5, 4), result.getBestMove());
+        Assertions.assertTrue(result.getScore() > 300);
+    }
+
+    @Test
+    @DisplayName("Sees The Recapture Past The Horizon")
+    public void seesRecapture() {
+        // Qxd5 wins a pawn at depth 1 unless the search plays on to cxd5
+        ChessGame game = Fen.load("4k3/8/2p5/3p4/8/8/3Q4/4K3 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(1));
+
+        Assertions.assertNotEquals(move(2, 4, 5, 4), result.getBestMove());
+        Assertions.assertTrue(result.getScore() < 900, "Score " + result.getScore() + " ignores the recapture");
+    }
+
+    @Test
+    @DisplayName("Sees Repetitions Of Earlier Game Positions")
+    public void seesGameRepetitions() throws InvalidMoveException {
+        // Queen up, White shuffles its queen while Black shuffles its king
+        ChessGame game = Fen.load("7k/8/8/8/8/8/8/3QK3 w - - 0 1");
+        game.makeMove(move(1, 4, 2, 4));
+        game.makeMove(move(8, 8, 8, 7));
+        game.makeMove(move(2, 4, 1, 4));
+        game.makeMove(move(8, 7, 8, 8));
+        game.makeMove(move(1, 4, 2, 4));
+
+        // Only Kg8 repeats a position from the game, which holds the draw
+        SearchResult result = engine.search(game, SearchLimits.depth(4));
+        Assertions.assertEquals(move(8, 8, 8, 7), result.getBestMove());
+        Assertions.assertEquals(0, result.getScore());
+    }
+
+    @Test
+    @DisplayName("Principal Variation Is Playable")
+    public void principalVariationIsPlayable() throws InvalidMoveException {
+        ChessGame game = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(4));
+
+        Assertions.assertEquals(4, result.getDepth());
+        Assertions.assertFalse(result.getPrincipalVariation().isEmpty());
+        Assertions.assertEquals(result.getBestMove(), result.getPrincipalVariation().get(0));
+        ChessGame replay = game.snapshot().toGame();
+        for (ChessMove move : result.getPrincipalVariation()) {
+            replay.makeMove(move);
+        }
+    }
+
+    @Test
+    @DisplayName("Search Leaves The Game Alone")
+    public void searchLeavesGameAlone() {
+        ChessGame game = new ChessGame();
+        long key = game.zobristKey();
+        engine.search(game, SearchLimits.depth(3));
+
+        Assertions.assertEquals(key, game.zobristKey());
+        Assertions.assertEquals(0, game.movesPlayed());
+    }
+
+    @Test
+    @DisplayName("No Move When Stalemated")
+    public void noMoveWhenStalemated() {
+        ChessGame game = Fen.load("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+
+        Assertions.assertNull(result.getBestMove());
+        Assertions.assertEquals(0, result.getScore());
+        Assertions.assertFalse(result.isMate());
+    }
+
+    @Test
+    @DisplayName("Stops At Node And Time Limits")
+    public void stopsAtLimits() {
+        ChessGame game = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+
+        SearchResult byNodes = engine.search(game, SearchLimits.nodes(20_000));
+        Assertions.assertNotNull(byNodes.getBestMove());
+        // Limits are checked every 1024 nodes
+        Assertions.assertTrue(byNodes.getNodes() < 20_000 + 1024, "Searched " + byNodes.getNodes() + " nodes");
+
+        SearchResult byTime = engine.search(game, SearchLimits.time(200));
+        Assertions.assertNotNull(byTime.getBestMove());
+        Assertions.assertTrue(byTime.getElapsedNanos() < 2_000_000_000L, "Search ran well past its time");
+        Assertions.assertTrue(byTime.getNodesPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Every Pruning Technique Keeps The Tactics")
+    public void pruningKeepsTactics() {
+        SearchConfig[] configs = {
+                SearchConfig.none(),
+                SearchConfig.none().withNullMove(true),
+                SearchConfig.none().withLateMoveReductions(true),
+                SearchConfig.none().withFutility(true),
+                SearchConfig.none().withAspirationWindows(true),
+                SearchConfig.all(),
+        };
+        for (SearchConfig config : configs) {
+            Engine configured = new Engine(4, 1, config);
+            SearchResult mate = configured.search(Fen.load("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), SearchLimits.depth(4));
+            Assertions.assertEquals(move(1, 1, 8, 1), mate.getBestMove(), config.toString());
+            Assertions.assertTrue(mate.isMate(), config.toString());
+
+            SearchResult queen = configured.search(Fen.load("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), SearchLimits.depth(5));
+            Assertions.assertEquals(move(2, 4, 5, 4), queen.getBestMove(), config.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Pruning Searches Fewer Nodes")
+    public void pruningSearchesFewerNodes() {
+        ChessGame game = Fen.load(MIDDLEGAME);
+        SearchResult plain = new Engine(4, 1, SearchConfig.none()).search(game, SearchLimits.depth(5));
+        SearchResult pruned = new Engine(4, 1, SearchConfig.all()).search(game, SearchLimits.depth(5));
+
+        Assertions.assertTrue(pruned.getNodes() < plain.getNodes(),
+                plain.getNodes() + " nodes without pruning, " + pruned.getNodes() + " with");
+    }
+
+    @Test
+    @DisplayName("Helper Threads Share The Search")
+    public void helperThreadsShareSearch() {
+        ChessGame game = Fen.load("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        try (Engine parallel = new Engine(4, 3)) {
+            SearchResult result = parallel.search(game, SearchLimits.depth(4));
+            Assertions.assertEquals(move(1, 1, 8, 1), result.getBestMove());
+            Assertions.assertTrue(result.isMate());
+
+            // The engine can search again once the helpers have stopped
+            SearchResult again = parallel.search(Fen.load(MIDDLEGAME), SearchLimits.depth(3));
+            Assertions.assertEquals(3, again.getDepth());
+            Assertions.assertNotNull(again.getBestMove());
+        }
+    }
+
+    @Test
+    @DisplayName("Stop Ends A Search From Another Thread")
+    public void stopEndsSearch() throws InterruptedException {
+        try (Engine parallel = new Engine(4, 2)) {
+            Thread stopper = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                parallel.stop();
+            });
+            stopper.start();
+            SearchResult result = parallel.search(Fen.load(MIDDLEGAME), SearchLimits.time(60_000));
+            stopper.join();
+
+            Assertions.assertNotNull(result.getBestMove());
+            Assertions.assertTrue(result.getElapsedNanos() < 10_000_000_000L, "Search ignored stop()");
+        }
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+}
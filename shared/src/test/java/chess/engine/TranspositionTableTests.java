@@ -0,0 +1,82 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.Moves;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Size Comes From Megabytes")
+    public void sizeFromMegabytes() {
+        Assertions.assertEquals(1 << 16, new TranspositionTable(1).capacity());
+        // Rounds down to a power of two
+        Assertions.assertEquals(1 << 17, new TranspositionTable(3).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Stores And Finds Entries")
+    public void storesAndFinds() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        int move = Moves.encode(12, 28, null) | Moves.DOUBLE_PUSH;
+        table.store(key, move, -250, 7, TranspositionTable.LOWER, 3);
+
+        long entry = table.probe(key);
+        Assertions.assertEquals(move, TranspositionTable.move(entry));
+        Assertions.assertEquals(-250, TranspositionTable.score(entry, 3));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+
+        // Another key in the same slot is a miss, not someone else's entry
+        Assertions.assertEquals(0, table.probe(key ^ (1L << 40)));
+
+        table.clear();
+        Assertions.assertEquals(0, table.probe(key));
+    }
+
+    @Test
+    @DisplayName("Mate Scores Are Stored Relative To The Position")
+    public void mateScoresMoveWithPly() {
+        TranspositionTable table = new TranspositionTable(1);
+        // Mating in 5 plies from the root, found 2 plies in: mate in 3 from there
+        table.store(42, Moves.NONE, Searcher.MATE - 5, 4, TranspositionTable.EXACT, 2);
+
+        // Reached again 4 plies from the root it is mate in 7 from the root
+        Assertions.assertEquals(Searcher.MATE - 7, TranspositionTable.score(table.probe(42), 4));
+    }
+
+    @Test
+    @DisplayName("Deeper Entries From This Search Are Kept")
+    public void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 5;
+        long sameSlot = key + table.capacity();
+        table.store(key, Moves.NONE, 10, 8, TranspositionTable.EXACT, 0);
+        table.store(sameSlot, Moves.NONE, 20, 2, TranspositionTable.EXACT, 0);
+        Assertions.assertNotEquals(0, table.probe(key), "A shallow entry replaced a deeper one");
+
+        // From a later search, old entries give way
+        table.newSearch();
+        table.store(sameSlot, Moves.NONE, 20, 2, TranspositionTable.EXACT, 0);
+        Assertions.assertEquals(0, table.probe(key));
+        Assertions.assertNotEquals(0, table.probe(sameSlot));
+    }
+
+    @Test
+    @DisplayName("Later Searches Reuse The Table")
+    public void laterSearchesReuseTable() {
+        ChessGame game = Fen.load("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Engine engine = new Engine(4);
+        SearchResult first = engine.search(game, SearchLimits.depth(4));
+        SearchResult second = engine.search(game, SearchLimits.depth(4));
+
+        Assertions.assertTrue(second.getNodes() < first.getNodes(),
+                first.getNodes() + " nodes the first time, " + second.getNodes() + " the second");
+        Assertions.assertEquals(first.getBestMove(), second.getBestMove());
+    }
+}